@@ -0,0 +1,72 @@
+package com.example.employees.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date cell parsing: the char-level {@link DateParser} against the original formatter chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParsingBenchmark {
+
+    private String[] dates;
+
+    @Setup
+    public void setUp() {
+        dates = SyntheticAssignments.dates(1024, 7);
+    }
+
+    @Benchmark
+    public void dateParser(Blackhole blackhole) {
+        DateParser parser = DateParser.legacyOrder();
+        for (String date : dates) {
+            blackhole.consume(parser.parseEpochDay(date));
+        }
+    }
+
+    @Benchmark
+    public void formatterChain(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(parseWithFormatterChain(date));
+        }
+    }
+
+    /**
+     * The pre-DateParser implementation, kept here as the baseline.
+     */
+    private static LocalDate parseWithFormatterChain(String dateStr) {
+        List<DateTimeFormatter> formatters = List.of(
+                DateTimeFormatter.ofPattern("yyyy-MM-dd").withResolverStyle(ResolverStyle.SMART),
+                DateTimeFormatter.ofPattern("MM/dd/yyyy").withResolverStyle(ResolverStyle.SMART),
+                DateTimeFormatter.ofPattern("dd-MM-yyyy").withResolverStyle(ResolverStyle.SMART),
+                DateTimeFormatter.ofPattern("dd/MM/yyyy").withResolverStyle(ResolverStyle.SMART),
+                DateTimeFormatter.ofPattern("MM-dd-yyyy").withResolverStyle(ResolverStyle.SMART)
+        );
+        for (DateTimeFormatter formatter : formatters) {
+            try {
+                return LocalDate.parse(dateStr.trim(), formatter);
+            } catch (Exception ignored) {}
+        }
+        return null;
+    }
+}
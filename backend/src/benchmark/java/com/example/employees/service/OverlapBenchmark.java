@@ -0,0 +1,62 @@
+package com.example.employees.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap computation over already parsed projects, per engine and execution mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverlapBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ParsedProjects {
+
+        @Param({"nested-loop", "sweep-line"})
+        public String engine;
+
+        @Param({"false", "true"})
+        public boolean parallel;
+
+        EmployeePairService service;
+        Map<Integer, List<ProjectEntry>> projectMap;
+
+        @Setup
+        public void setUp(SyntheticDatasetState dataset) throws IOException {
+            service = parallel
+                    ? ServiceFixtures.parallel(engine, Runtime.getRuntime().availableProcessors(), 4096)
+                    : ServiceFixtures.service(engine);
+            projectMap = service.parseProjects(new StringReader(dataset.csv));
+        }
+
+        @TearDown
+        public void tearDown() {
+            service.shutdown();
+        }
+    }
+
+    @Benchmark
+    public PairTable computePairTotals(ParsedProjects projects) throws IOException {
+        return projects.service.computePairTotals(projects.projectMap);
+    }
+}
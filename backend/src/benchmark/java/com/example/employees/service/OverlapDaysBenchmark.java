@@ -0,0 +1,89 @@
+package com.example.employees.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-pair overlap test of the engines' inner loop: epoch-day arithmetic on the parsed rows against
+ * the previous {@link LocalDate}/{@link java.time.Period} computation (which also undercounted overlaps
+ * longer than a month). Run with {@code -prof gc} to compare the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverlapDaysBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Rows {
+
+        @Param("1000")
+        public int size;
+
+        @Param("180")
+        public int maxLengthDays;
+
+        ProjectEntry[] entries;
+        LocalDate[] from;
+        LocalDate[] to;
+
+        @Setup
+        public void generate() {
+            Random random = new Random(42);
+            int base = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+            entries = new ProjectEntry[size];
+            from = new LocalDate[size];
+            to = new LocalDate[size];
+            for (int i = 0; i < size; i++) {
+                int start = base + random.nextInt(1825);
+                int end = start + random.nextInt(maxLengthDays);
+                entries[i] = new ProjectEntry(i, 1, start, end);
+                from[i] = LocalDate.ofEpochDay(start);
+                to[i] = LocalDate.ofEpochDay(end);
+            }
+        }
+    }
+
+    @Benchmark
+    public long epochDays(Rows rows) {
+        ProjectEntry[] entries = rows.entries;
+        long total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            for (int j = i + 1; j < entries.length; j++) {
+                total += entries[i].overlapDays(entries[j]);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long localDates(Rows rows) {
+        LocalDate[] from = rows.from;
+        LocalDate[] to = rows.to;
+        long total = 0;
+        for (int i = 0; i < from.length; i++) {
+            for (int j = i + 1; j < from.length; j++) {
+                LocalDate start = from[i].isAfter(from[j]) ? from[i] : from[j];
+                LocalDate end = to[i].isBefore(to[j]) ? to[i] : to[j];
+                if (!start.isAfter(end)) {
+                    total += start.until(end).getDays() + 1;
+                }
+            }
+        }
+        return total;
+    }
+}
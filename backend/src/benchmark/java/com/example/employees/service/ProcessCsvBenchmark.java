@@ -0,0 +1,64 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end upload processing: parse, overlap and result assembly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessCsvBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Upload {
+
+        @Param({"false", "true"})
+        public boolean parallel;
+
+        EmployeePairService service;
+        MockMultipartFile file;
+
+        @Setup
+        public void setUp(SyntheticDatasetState dataset) {
+            service = parallel
+                    ? ServiceFixtures.parallel("sweep-line", Runtime.getRuntime().availableProcessors(), 4096)
+                    : ServiceFixtures.service("sweep-line");
+            file = new MockMultipartFile("file", "synthetic.csv", "text/csv", dataset.csv.getBytes());
+        }
+
+        @TearDown
+        public void tearDown() {
+            service.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<EmployeePairResult> processCSV(Upload upload) throws Exception {
+        return upload.service.processCSV(upload.file);
+    }
+
+    @Benchmark
+    public List<EmployeePairResult> processCSVStream(Upload upload) throws Exception {
+        return upload.service.processCSVStream(new ByteArrayInputStream(upload.file.getBytes()));
+    }
+}
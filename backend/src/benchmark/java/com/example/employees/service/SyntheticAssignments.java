@@ -0,0 +1,58 @@
+package com.example.employees.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Generates synthetic assignment CSV exports for the benchmarks.
+ */
+final class SyntheticAssignments {
+
+    private static final LocalDate BASE_DATE = LocalDate.of(2015, 1, 1);
+
+    private SyntheticAssignments() {
+    }
+
+    /**
+     * @param employees      number of distinct employee ids
+     * @param projects       number of distinct project ids
+     * @param rows           number of assignment rows
+     * @param skew           0 spreads rows evenly over projects, larger values pile them onto a few hot projects
+     * @param dateSpreadDays window in which assignments start
+     * @param maxLengthDays  longest assignment
+     * @param mixedFormats   cycle through every supported date format instead of ISO only
+     */
+    static String csv(int employees, int projects, int rows, double skew, int dateSpreadDays,
+                      int maxLengthDays, boolean mixedFormats, long seed) {
+        Random random = new Random(seed);
+        DateParser.Format[] formats = DateParser.Format.values();
+        StringBuilder csv = new StringBuilder(rows * 32).append("EmpID,ProjectID,DateFrom,DateTo\n");
+
+        for (int i = 0; i < rows; i++) {
+            int project = (int) (projects * Math.pow(random.nextDouble(), 1 + skew));
+            LocalDate from = BASE_DATE.plusDays(random.nextInt(Math.max(1, dateSpreadDays)));
+            LocalDate to = from.plusDays(random.nextInt(Math.max(1, maxLengthDays)));
+            DateTimeFormatter format = mixedFormats ? formats[i % formats.length].formatter : formats[0].formatter;
+
+            csv.append(1 + random.nextInt(employees)).append(',')
+                    .append(1 + project).append(',')
+                    .append(from.format(format)).append(',')
+                    .append(to.format(format)).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Individual date values in every supported format.
+     */
+    static String[] dates(int count, long seed) {
+        Random random = new Random(seed);
+        DateParser.Format[] formats = DateParser.Format.values();
+        String[] dates = new String[count];
+        for (int i = 0; i < count; i++) {
+            dates[i] = BASE_DATE.plusDays(random.nextInt(3650)).format(formats[i % formats.length].formatter);
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.employees.service;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Tunable synthetic dataset shared by the pipeline benchmarks.
+ */
+@State(Scope.Benchmark)
+public class SyntheticDatasetState {
+
+    @Param("2000")
+    public int employees;
+
+    @Param("200")
+    public int projects;
+
+    @Param("50000")
+    public int rows;
+
+    @Param({"0", "3"})
+    public double skew;
+
+    @Param("1825")
+    public int dateSpreadDays;
+
+    @Param("180")
+    public int maxLengthDays;
+
+    public String csv;
+
+    @Setup
+    public void generate() {
+        csv = SyntheticAssignments.csv(employees, projects, rows, skew, dateSpreadDays, maxLengthDays, true, 42);
+    }
+}
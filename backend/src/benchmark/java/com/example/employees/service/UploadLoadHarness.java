@@ -0,0 +1,190 @@
+package com.example.employees.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fires concurrent multipart uploads at a running instance and reports latency percentiles.
+ * <p>
+ * Start the app, then:
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec@load-test -Dload.args="--concurrency 32 --requests 500 --rows 20000"
+ * </pre>
+ * Options: {@code --url} (default {@code http://localhost:8080/api/upload}), {@code --concurrency} (16),
+ * {@code --requests} (200), {@code --rows} per upload (10000), {@code --distinct} generated files (8),
+ * {@code --warmup} requests not measured (20). Each client sends its next upload as soon as the previous
+ * one is answered, so throughput is bounded by the server.
+ * <p>
+ * Every upload, warm-up included, ends with a row of its own, so no two requests have the same content and
+ * the result cache cannot answer any of them. The cache hits the server counted during the measured run are
+ * read from {@code /actuator/prometheus} and reported with the latencies.
+ */
+public final class UploadLoadHarness {
+
+    private static final String BOUNDARY = "load-harness-boundary";
+
+    private static final long UNIQUE_EMP_ID = 1_000_000_000L;
+
+    private UploadLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        URI url = URI.create(options.getOrDefault("url", "http://localhost:8080/api/upload"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", "200"));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "10000"));
+        int distinct = Integer.parseInt(options.getOrDefault("distinct", "8"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "20"));
+
+        byte[][] csvs = new byte[distinct][];
+        for (int i = 0; i < distinct; i++) {
+            csvs[i] = SyntheticAssignments.csv(rows / 4, rows / 50 + 1, rows, 0.5, 3650, 365, false, i)
+                    .getBytes(StandardCharsets.US_ASCII);
+        }
+        System.out.printf("Uploading %d x %d KB to %s with %d concurrent clients (%d warm-up requests)%n",
+                requests, csvs[0].length / 1024, url, concurrency, warmup);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        AtomicLong uploads = new AtomicLong();
+        run(client, url, csvs, uploads, concurrency, warmup);
+        URI metrics = url.resolve("/actuator/prometheus");
+        long hitsBefore = cacheHits(client, metrics);
+        Result result = run(client, url, csvs, uploads, concurrency, requests);
+        long hitsAfter = cacheHits(client, metrics);
+        result.print();
+        if (hitsBefore < 0 || hitsAfter < 0) {
+            System.out.println("Cache hits: unknown, " + metrics + " is not available");
+        } else {
+            System.out.printf("Cache hits: %d%s%n", hitsAfter - hitsBefore,
+                    hitsAfter > hitsBefore ? " (latencies include cached answers)" : "");
+        }
+    }
+
+    private static Result run(HttpClient client, URI url, byte[][] csvs, AtomicLong uploads, int concurrency,
+                              int requests) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        long[] latencies = new long[requests];
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < concurrency; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        HttpRequest request = HttpRequest.newBuilder(url)
+                                .timeout(Duration.ofMinutes(5))
+                                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                                .POST(multipart(csvs[i % csvs.length], uploads.incrementAndGet()))
+                                .build();
+                        long sent = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                        statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        return new Result(latencies, statuses, System.nanoTime() - start);
+    }
+
+    // The generated CSV plus a row only this upload has: an employee outside the generated ids, on no shared project
+    private static HttpRequest.BodyPublisher multipart(byte[] csv, long upload) {
+        String head = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"load.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n";
+        String tail = (UNIQUE_EMP_ID + upload) % Integer.MAX_VALUE + ",-1,2000-01-01,2000-01-01"
+                + "\r\n--" + BOUNDARY + "--\r\n";
+        return HttpRequest.BodyPublishers.concat(
+                HttpRequest.BodyPublishers.ofString(head, StandardCharsets.US_ASCII),
+                HttpRequest.BodyPublishers.ofByteArray(csv),
+                HttpRequest.BodyPublishers.ofString(tail, StandardCharsets.US_ASCII));
+    }
+
+    // Sum of employees_cache_lookups_total{result="hit"} scraped from the server, or -1 when it cannot be read
+    private static long cacheHits(HttpClient client, URI metrics) {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(metrics).timeout(Duration.ofSeconds(10)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return -1;
+            }
+            long hits = 0;
+            boolean found = false;
+            for (String line : response.body().split("\n")) {
+                if (line.startsWith("employees_cache_lookups_total{") && line.contains("result=\"hit\"")) {
+                    hits += (long) Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+                    found = true;
+                }
+            }
+            return found ? hits : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new TreeMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value pairs, got " + Arrays.toString(args));
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private record Result(long[] latencies, Map<Integer, LongAdder> statuses, long elapsedNanos) {
+
+        void print() {
+            if (latencies.length == 0) {
+                return;
+            }
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            System.out.printf("Throughput: %.1f uploads/s%n", sorted.length / (elapsedNanos / 1e9));
+            System.out.printf("Latency ms: p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n",
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)),
+                    millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1]));
+            new TreeMap<>(statuses).forEach((status, count) ->
+                    System.out.printf("HTTP %s: %d%n", status < 0 ? "error" : status, count.sum()));
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.employees.config;
+
+import com.example.employees.service.ComputeGate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many CPU-heavy computations run at once, by default one per core.
+ * <p>
+ * Receiving an upload is I/O and happens before a request asks for a slot, so with many concurrent
+ * uploads the transfers keep going while only the computations queue. Requests wait in arrival order
+ * for at most {@code compute.wait-seconds} and are then turned away.
+ */
+@Component
+public class ComputeAdmission implements ComputeGate {
+
+    private static final Logger log = LoggerFactory.getLogger(ComputeAdmission.class);
+
+    private final int permits;
+
+    private final Semaphore slots;
+
+    private final Duration maxWait;
+
+    private final Timer waitTimer;
+
+    private final Counter rejected;
+
+    @Autowired
+    public ComputeAdmission(@Value("${compute.max-concurrent:0}") int maxConcurrent,
+                            @Value("${compute.wait-seconds:30}") long waitSeconds,
+                            MeterRegistry registry) {
+        this("requests", maxConcurrent, waitSeconds, registry);
+    }
+
+    /**
+     * A separate gate with its own slots, reported under the {@code gate} tag of the same metrics.
+     */
+    public ComputeAdmission(String gate, int maxConcurrent, long waitSeconds, MeterRegistry registry) {
+        this.permits = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+        this.slots = new Semaphore(permits, true);
+        this.maxWait = Duration.ofSeconds(Math.max(0, waitSeconds));
+        this.waitTimer = Timer.builder("employees.compute.admission.wait")
+                .description("Time requests waited for a computation slot")
+                .tag("gate", gate)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejected = Counter.builder("employees.compute.rejected")
+                .description("Requests turned away because no computation slot freed up in time")
+                .tag("gate", gate)
+                .register(registry);
+        Gauge.builder("employees.compute.active", slots, s -> permits - s.availablePermits())
+                .description("Computations currently running")
+                .tag("gate", gate)
+                .register(registry);
+        Gauge.builder("employees.compute.waiting", slots, Semaphore::getQueueLength)
+                .description("Requests waiting for a computation slot")
+                .tag("gate", gate)
+                .register(registry);
+        log.info("Allowing {} concurrent computations for {}, waiting up to {}s for a slot", permits, gate, maxWait.toSeconds());
+    }
+
+    int permits() {
+        return permits;
+    }
+
+    @Override
+    public Duration maxWait() {
+        return maxWait;
+    }
+
+    /**
+     * Waits for a computation slot; every successful call must be paired with {@link #exit()}.
+     *
+     * @return false when no slot freed up within {@code compute.wait-seconds}
+     */
+    @Override
+    public boolean enter() throws InterruptedException {
+        long start = System.nanoTime();
+        boolean admitted = slots.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!admitted) {
+            rejected.increment();
+        }
+        return admitted;
+    }
+
+    @Override
+    public void exit() {
+        slots.release();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.employees.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Holds a {@link ComputeAdmission} slot while a computing request runs its handler.
+ * <p>
+ * Multipart uploads are read before interceptors run, so waiting for a slot never holds up a transfer.
+ * Streamed responses give their slot back once the handler returns: the pairs are computed by then and
+ * writing them out is I/O. The async dispatch that completes such a response is not gated again.
+ */
+class ComputeAdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ComputeAdmissionInterceptor.class);
+
+    private static final String PERMIT_ATTRIBUTE = ComputeAdmissionInterceptor.class.getName() + ".permit";
+
+    private final ComputeAdmission admission;
+
+    ComputeAdmissionInterceptor(ComputeAdmission admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        if (!admission.enter()) {
+            log.warn("Rejecting {} {}: no computation slot freed up within {}s",
+                    request.getMethod(), request.getRequestURI(), admission.maxWait().toSeconds());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, admission.maxWait().toSeconds())));
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            admission.exit();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.employees.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Answers 413 to multipart requests that declare a body larger than the upload limit before the container reads it.
+ * <p>
+ * The container's multipart limits are a single servlet-wide setting sized for the one path that takes larger
+ * uploads ({@code /api/jobs}); this filter holds every other path to the smaller limit. Requests sent without a
+ * Content-Length are still bounded by the container limits and by the endpoints' own file size checks.
+ */
+class UploadSizeFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadSizeFilter.class);
+
+    // Room for the part headers and boundaries around a file of the maximum size
+    static final long MULTIPART_OVERHEAD_BYTES = 64 * 1024;
+
+    private final long maxRequestBytes;
+
+    private final String exemptPath;
+
+    UploadSizeFilter(long maxFileBytes, String exemptPath) {
+        this.maxRequestBytes = maxFileBytes + MULTIPART_OVERHEAD_BYTES;
+        this.exemptPath = exemptPath;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isMultipart(request) && !isExempt(request) && request.getContentLengthLong() > maxRequestBytes) {
+            log.warn("Rejecting {} {}: multipart body of {} bytes exceeds {}",
+                    request.getMethod(), request.getRequestURI(), request.getContentLengthLong(), maxRequestBytes);
+            response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.regionMatches(true, 0, "multipart/", 0, "multipart/".length());
+    }
+
+    private boolean isExempt(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals(exemptPath) || path.startsWith(exemptPath + "/");
+    }
+}
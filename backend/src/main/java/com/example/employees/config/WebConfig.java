@@ -1,6 +1,10 @@
 package com.example.employees.config;
 
+import com.example.employees.service.ShardCoordinator;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.*;
 
@@ -12,8 +16,17 @@ public class WebConfig implements WebMvcConfigurer {
 
     private final List<String> allowedOrigins;
 
-    public WebConfig(@Value("${frontend.urls}") String frontendUrls) {
+    private final ComputeAdmission computeAdmission;
+
+    private final ComputeAdmission shardAdmission;
+
+    public WebConfig(@Value("${frontend.urls}") String frontendUrls, ComputeAdmission computeAdmission,
+                     @Value("${distributed.worker-max-concurrent:0}") int shardMaxConcurrent,
+                     @Value("${compute.wait-seconds:30}") long waitSeconds,
+                     MeterRegistry meterRegistry) {
         this.allowedOrigins = Arrays.asList(frontendUrls.split(","));
+        this.computeAdmission = computeAdmission;
+        this.shardAdmission = new ComputeAdmission("shards", shardMaxConcurrent, waitSeconds, meterRegistry);
     }
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -23,4 +36,25 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Endpoints that compute pairs in the request; /api/jobs has its own bounded worker pool. /api/upload/stream
+        // reads its body while the handler runs, so it takes a slot itself once the body has been read
+        registry.addInterceptor(new ComputeAdmissionInterceptor(computeAdmission))
+                .addPathPatterns("/api/upload", "/api/upload/**", "/api/snapshot", "/api/analyze-path", "/api/datasets/**")
+                .excludePathPatterns("/api/upload/stream");
+        // Shards get slots of their own: a coordinator request keeps its slot while it waits for its shards, which
+        // may be sent to this very instance, so sharing the slots above could leave them all waiting on each other
+        registry.addInterceptor(new ComputeAdmissionInterceptor(shardAdmission))
+                .addPathPatterns(ShardCoordinator.SHARD_PATH);
+    }
+
+    @Bean
+    public FilterRegistrationBean<UploadSizeFilter> uploadSizeFilter(@Value("${max-file-size-mb:5}") int maxFileSizeMb) {
+        FilterRegistrationBean<UploadSizeFilter> registration =
+                new FilterRegistrationBean<>(new UploadSizeFilter(maxFileSizeMb * 1024L * 1024L, "/api/jobs"));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
 }
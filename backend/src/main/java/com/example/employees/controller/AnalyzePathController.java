@@ -0,0 +1,47 @@
+package com.example.employees.controller;
+
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.service.PathAnalysisService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@Slf4j
+public class AnalyzePathController {
+
+    private final PathAnalysisService pathAnalysisService;
+
+    public AnalyzePathController(PathAnalysisService pathAnalysisService) {
+        this.pathAnalysisService = pathAnalysisService;
+    }
+
+    /**
+     * Analyzes a CSV file on the server's disk; {@code path} is relative to {@code analyze-path.allowed-dir}.
+     */
+    @PostMapping("/analyze-path")
+    public ResponseEntity<List<EmployeePairResult>> analyzePath(@RequestParam("path") String path) {
+        log.info("Received analyze-path request for '{}'", path);
+
+        try {
+            List<EmployeePairResult> result = pathAnalysisService.analyze(path);
+            log.info("Analyzed '{}' successfully, found {} employee pairs", path, result.size());
+            return ResponseEntity.ok(result);
+        } catch (AccessDeniedException e) {
+            log.warn("Rejecting analyze-path request for '{}': {}", path, e.getReason());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (NoSuchFileException e) {
+            log.warn("File '{}' not found for analyze-path: {}", path, e.getReason());
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error analyzing file '{}': {}", path, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+}
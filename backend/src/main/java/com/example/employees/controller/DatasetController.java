@@ -0,0 +1,128 @@
+package com.example.employees.controller;
+
+import com.example.employees.model.ColleagueResult;
+import com.example.employees.model.DatasetInfo;
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.TopPairResult;
+import com.example.employees.service.DatasetService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/datasets")
+@Slf4j
+public class DatasetController {
+
+    private final DatasetService datasetService;
+
+    public DatasetController(DatasetService datasetService) {
+        this.datasetService = datasetService;
+    }
+
+    @PostMapping
+    public ResponseEntity<DatasetInfo> create(@RequestParam("file") MultipartFile file) {
+        log.info("Received dataset upload: filename='{}', size={} bytes", file.getOriginalFilename(), file.getSize());
+
+        try {
+            DatasetInfo info = datasetService.create(file);
+            return ResponseEntity.created(URI.create("/api/datasets/" + info.id)).body(info);
+        } catch (Exception e) {
+            log.error("Error creating dataset from '{}': {}", file.getOriginalFilename(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Appends the uploaded rows; only the projects they belong to are recomputed.
+     */
+    @PostMapping("/{id}/rows")
+    public ResponseEntity<DatasetInfo> appendRows(@PathVariable String id, @RequestParam("file") MultipartFile file) {
+        log.info("Received {} bytes of rows for dataset {}", file.getSize(), id);
+
+        try {
+            return found(datasetService.appendRows(id, file));
+        } catch (Exception e) {
+            log.error("Error appending rows to dataset {}: {}", id, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Recomputes the pair totals from every stored row.
+     */
+    @PostMapping("/{id}/recompute")
+    public ResponseEntity<DatasetInfo> recompute(@PathVariable String id) throws IOException {
+        return found(datasetService.recompute(id));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DatasetInfo> info(@PathVariable String id) throws IOException {
+        return found(datasetService.info(id));
+    }
+
+    @GetMapping("/{id}/pairs")
+    public ResponseEntity<List<EmployeePairResult>> pairs(@PathVariable String id) throws IOException {
+        return found(datasetService.pairs(id));
+    }
+
+    /**
+     * Employees who worked with {@code empId}, optionally only on {@code projectId} and between {@code from} and {@code to}.
+     */
+    @GetMapping("/{id}/employees/{empId}/colleagues")
+    public ResponseEntity<List<ColleagueResult>> colleagues(@PathVariable String id, @PathVariable int empId,
+                                                            @RequestParam(required = false) Integer projectId,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) throws IOException {
+        if (from != null && to != null && from.isAfter(to)) {
+            log.warn("Rejecting colleagues query with from {} after to {}", from, to);
+            return ResponseEntity.badRequest().build();
+        }
+        return found(datasetService.colleagues(id, empId, projectId, from, to));
+    }
+
+    /**
+     * Days two employees worked together, per project.
+     */
+    @GetMapping("/{id}/pairs/{empId1}/{empId2}")
+    public ResponseEntity<TopPairResult> pair(@PathVariable String id, @PathVariable int empId1,
+                                              @PathVariable int empId2) throws IOException {
+        if (empId1 == empId2) {
+            log.warn("Rejecting pair query for employee {} with themselves", empId1);
+            return ResponseEntity.badRequest().build();
+        }
+        return found(datasetService.pair(id, empId1, empId2));
+    }
+
+    /**
+     * Pairs that overlapped on {@code projectId} between {@code from} and {@code to}, counting only the days in that window.
+     */
+    @GetMapping("/{id}/projects/{projectId}/overlaps")
+    public ResponseEntity<List<EmployeePairResult>> overlaps(@PathVariable String id, @PathVariable int projectId,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) throws IOException {
+        if (from.isAfter(to)) {
+            log.warn("Rejecting overlaps query with from {} after to {}", from, to);
+            return ResponseEntity.badRequest().build();
+        }
+        return found(datasetService.overlapsWithin(id, projectId, from, to));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) throws IOException {
+        return datasetService.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private static <T> ResponseEntity<T> found(Optional<T> body) {
+        return body.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
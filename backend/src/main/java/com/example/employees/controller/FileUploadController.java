@@ -1,7 +1,12 @@
 package com.example.employees.controller;
 
+import com.example.employees.config.ComputeAdmission;
 import com.example.employees.service.EmployeePairService;
+import com.example.employees.service.PairResults;
+import com.example.employees.service.ResultCache;
+import com.example.employees.service.SnapshotWriter;
 import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.TopPairResult;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,22 +14,44 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api")
 @Slf4j
 public class FileUploadController {
 
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    static final String SNAPSHOT_FILENAME = "assignments.snapshot";
+
     private final EmployeePairService employeePairService;
 
+    private final ResultCache resultCache;
+
     private final long maxFileSizeBytes;
 
-    public FileUploadController(EmployeePairService employeePairService, @Value("${max-file-size-mb:5}") int maxFileSizeMb) {
+    private final int maxTopK;
+
+    private final ComputeAdmission computeAdmission;
+
+    public FileUploadController(EmployeePairService employeePairService, ResultCache resultCache,
+                                @Value("${max-file-size-mb:5}") int maxFileSizeMb,
+                                @Value("${top-k.max:10000}") int maxTopK,
+                                ComputeAdmission computeAdmission) {
         this.employeePairService = employeePairService;
+        this.resultCache = resultCache;
+        this.computeAdmission = computeAdmission;
         this.maxFileSizeBytes = maxFileSizeMb * 1024L * 1024L;
+        this.maxTopK = maxTopK;
     }
 
     @PostMapping("/upload")
@@ -38,6 +65,12 @@ public class FileUploadController {
         }
 
         try {
+            Optional<List<EmployeePairResult>> cached = resultCache.lookup(file);
+            if (cached.isPresent()) {
+                log.info("Returning cached result with {} employee pairs", cached.get().size());
+                return ResponseEntity.ok(cached.get());
+            }
+
             List<EmployeePairResult> result = employeePairService.processCSV(file);
             log.info("Processed CSV successfully, found {} employee pairs", result.size());
             return ResponseEntity.ok(result);
@@ -46,4 +79,154 @@ public class FileUploadController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
+
+    /**
+     * Same pairs as {@link #handleFileUpload}, streamed as one JSON object per line.
+     */
+    @PostMapping(value = "/upload", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> handleFileUploadNdjson(@RequestParam("file") MultipartFile file) {
+        return streamFileUpload(file, MediaType.parseMediaType(APPLICATION_NDJSON_VALUE), PairStreamWriter::writeNdjson);
+    }
+
+    /**
+     * Same JSON array as {@link #handleFileUpload}, written pair by pair with chunked transfer encoding.
+     */
+    @PostMapping(value = "/upload", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> handleFileUploadJsonStream(@RequestParam("file") MultipartFile file) {
+        return streamFileUpload(file, MediaType.APPLICATION_JSON, PairStreamWriter::writeJsonArray);
+    }
+
+    // The pairs are computed before the response is committed, so a bad file still gets a 400
+    private ResponseEntity<StreamingResponseBody> streamFileUpload(MultipartFile file, MediaType mediaType, PairFormat format) {
+        log.info("Received streaming-response upload request: filename='{}', size={} bytes, format={}",
+                file.getOriginalFilename(), file.getSize(), mediaType);
+
+        if (file.getSize() > maxFileSizeBytes) {
+            log.warn("File size {} exceeds max allowed size {}", file.getSize(), maxFileSizeBytes);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+
+        PairResults pairs;
+        try {
+            Optional<List<EmployeePairResult>> cached = resultCache.lookup(file);
+            pairs = cached.isPresent() ? PairResults.of(cached.get()) : employeePairService.processCSVPairs(file);
+        } catch (Exception e) {
+            log.error("Error processing CSV file '{}': {}", file.getOriginalFilename(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        log.info("Processed CSV successfully, streaming {} employee pairs", pairs.size());
+        StreamingResponseBody body = out -> format.write(pairs, out);
+        return ResponseEntity.ok().contentType(mediaType).body(body);
+    }
+
+    /**
+     * Returns only the {@code k} longest-working pairs, best first, with their per-project day breakdown.
+     */
+    @PostMapping("/upload/top")
+    public ResponseEntity<List<TopPairResult>> handleTopUpload(@RequestParam("file") MultipartFile file,
+                                                               @RequestParam(value = "k", defaultValue = "1") int k,
+                                                               @RequestParam(value = "prune", defaultValue = "true") boolean prune) {
+        log.info("Received top-{} upload request: filename='{}', size={} bytes", k, file.getOriginalFilename(), file.getSize());
+
+        if (k < 1 || k > maxTopK) {
+            log.warn("Rejecting top-k request with k={}, allowed 1 to {}", k, maxTopK);
+            return ResponseEntity.badRequest().build();
+        }
+        if (file.getSize() > maxFileSizeBytes) {
+            log.warn("File size {} exceeds max allowed size {}", file.getSize(), maxFileSizeBytes);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Collections.emptyList());
+        }
+
+        try {
+            List<TopPairResult> result = employeePairService.processCSVTopK(file, k, prune);
+            log.info("Processed CSV successfully, returning top {} employee pairs", result.size());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("Error processing CSV file '{}': {}", file.getOriginalFilename(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Accepts the raw CSV as the request body (no multipart, no size limit) and
+     * processes it with the bounded-memory streaming ingestion. The body is read before a computation
+     * slot is taken, so a slow upload does not hold one; 503 when no slot frees up in time.
+     */
+    @PostMapping(value = "/upload/stream", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<List<EmployeePairResult>> handleStreamUpload(InputStream body) {
+        log.info("Received streaming upload request");
+
+        try {
+            List<EmployeePairResult> result = employeePairService.processCSVStream(body, computeAdmission);
+            log.info("Processed streamed CSV successfully, found {} employee pairs", result.size());
+            return ResponseEntity.ok(result);
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejecting streamed CSV: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, computeAdmission.maxWait().toSeconds())))
+                    .build();
+        } catch (Exception e) {
+            log.error("Error processing streamed CSV: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Converts a CSV upload into its binary snapshot, to be sent back to {@code /api/upload/snapshot} later
+     * without parsing the CSV again.
+     */
+    @PostMapping("/snapshot")
+    public ResponseEntity<StreamingResponseBody> handleSnapshotExport(@RequestParam("file") MultipartFile file) {
+        log.info("Received snapshot export request: filename='{}', size={} bytes", file.getOriginalFilename(), file.getSize());
+
+        if (file.getSize() > maxFileSizeBytes) {
+            log.warn("File size {} exceeds max allowed size {}", file.getSize(), maxFileSizeBytes);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+
+        SnapshotWriter snapshot;
+        try {
+            snapshot = employeePairService.exportSnapshot(file);
+        } catch (Exception e) {
+            log.error("Error processing CSV file '{}': {}", file.getOriginalFilename(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        ContentDisposition disposition = ContentDisposition.attachment().filename(SNAPSHOT_FILENAME).build();
+        StreamingResponseBody body = snapshot::writeTo;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
+    /**
+     * Same pairs as {@link #handleFileUpload} from a snapshot made by {@link #handleSnapshotExport}.
+     */
+    @PostMapping("/upload/snapshot")
+    public ResponseEntity<List<EmployeePairResult>> handleSnapshotUpload(@RequestParam("file") MultipartFile file) {
+        log.info("Received snapshot upload request: filename='{}', size={} bytes", file.getOriginalFilename(), file.getSize());
+
+        if (file.getSize() > maxFileSizeBytes) {
+            log.warn("File size {} exceeds max allowed size {}", file.getSize(), maxFileSizeBytes);
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Collections.emptyList());
+        }
+
+        try {
+            List<EmployeePairResult> result = employeePairService.processSnapshot(file);
+            log.info("Processed snapshot successfully, found {} employee pairs", result.size());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("Error processing snapshot '{}': {}", file.getOriginalFilename(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @FunctionalInterface
+    private interface PairFormat {
+        void write(PairResults pairs, OutputStream out) throws IOException;
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.employees.controller;
+
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.JobPhase;
+import com.example.employees.model.JobStatus;
+import com.example.employees.service.JobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/jobs")
+@Slf4j
+public class JobController {
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<JobStatus> submit(@RequestParam("file") MultipartFile file) {
+        log.info("Received job request: filename='{}', size={} bytes", file.getOriginalFilename(), file.getSize());
+
+        try {
+            JobStatus status = jobService.submit(file);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/jobs/" + status.id))
+                    .body(status);
+        } catch (RejectedExecutionException e) {
+            log.warn("Job queue is full, rejecting '{}'", file.getOriginalFilename());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        } catch (Exception e) {
+            log.error("Could not queue job for '{}': {}", file.getOriginalFilename(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<JobStatus> status(@PathVariable String id) {
+        return jobService.status(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 200 with the pairs once the job is done, 409 while it is still running, 400 if it failed.
+     */
+    @GetMapping("/{id}/result")
+    public ResponseEntity<List<EmployeePairResult>> result(@PathVariable String id) {
+        JobStatus status = jobService.status(id).orElse(null);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (status.phase == JobPhase.FAILED) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        if (status.phase != JobPhase.DONE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return jobService.result(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.employees.controller;
+
+import com.example.employees.service.PairResults;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes pair totals straight to the response as NDJSON or as a JSON array, one pair at a time.
+ * <p>
+ * The generator buffers a few KB and is flushed every {@value #FLUSH_INTERVAL} pairs, so the client sees
+ * data early. Writes block while the client is not reading, which throttles the producer to the client.
+ */
+class PairStreamWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int FLUSH_INTERVAL = 1024;
+
+    private PairStreamWriter() {
+    }
+
+    /**
+     * One JSON object per line.
+     */
+    static void writeNdjson(PairResults pairs, OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            // Separate root values with a newline instead of a space
+            json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            write(pairs, json);
+            json.writeRaw('\n');
+        }
+    }
+
+    /**
+     * The same JSON array as the non-streaming response, written incrementally.
+     */
+    static void writeJsonArray(PairResults pairs, OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.writeStartArray();
+            write(pairs, json);
+            json.writeEndArray();
+        }
+    }
+
+    private static void write(PairResults pairs, JsonGenerator json) throws IOException {
+        int[] written = {0};
+        pairs.forEachOrdered((empId1, empId2, days) -> {
+            json.writeStartObject();
+            json.writeNumberField("empId1", empId1);
+            json.writeNumberField("empId2", empId2);
+            json.writeNumberField("daysWorked", days);
+            json.writeEndObject();
+            if (++written[0] % FLUSH_INTERVAL == 0) {
+                json.flush();
+            }
+        });
+    }
+}
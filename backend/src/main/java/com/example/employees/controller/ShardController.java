@@ -0,0 +1,47 @@
+package com.example.employees.controller;
+
+import com.example.employees.service.EmployeePairService;
+import com.example.employees.service.PairResults;
+import com.example.employees.service.ShardCoordinator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+/**
+ * Worker side of distributed computation: every instance computes the shards a coordinator sends it.
+ */
+@RestController
+@Slf4j
+public class ShardController {
+
+    private final EmployeePairService employeePairService;
+
+    public ShardController(EmployeePairService employeePairService) {
+        this.employeePairService = employeePairService;
+    }
+
+    /**
+     * Takes a shard as a binary snapshot and answers with its pair totals in binary.
+     */
+    @PostMapping(value = ShardCoordinator.SHARD_PATH, consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> handleShard(InputStream body) {
+        PairResults totals;
+        try {
+            totals = employeePairService.processShard(body);
+        } catch (Exception e) {
+            log.error("Error processing shard: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        log.info("Computed shard, returning {} pair totals", totals.size());
+        StreamingResponseBody response = out -> ShardCoordinator.writeTotals(totals, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(response);
+    }
+}
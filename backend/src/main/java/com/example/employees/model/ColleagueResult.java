@@ -0,0 +1,14 @@
+package com.example.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ColleagueResult {
+    public int empId;
+    public long daysWorked;
+    public List<ProjectOverlap> projects;
+}
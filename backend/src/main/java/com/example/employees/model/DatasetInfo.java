@@ -0,0 +1,15 @@
+package com.example.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DatasetInfo {
+    public String id;
+    public long rows;
+    public int projects;
+    public int pairs;
+    // Projects touched by the last create, delta or recompute
+    public int affectedProjects;
+}
@@ -0,0 +1,10 @@
+package com.example.employees.model;
+
+public enum JobPhase {
+    QUEUED,
+    PARSING,
+    OVERLAPPING,
+    AGGREGATING,
+    DONE,
+    FAILED
+}
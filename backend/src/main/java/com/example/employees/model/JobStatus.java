@@ -0,0 +1,14 @@
+package com.example.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class JobStatus {
+    public String id;
+    public JobPhase phase;
+    public long rowsProcessed;
+    public int percentComplete;
+    public String error;
+}
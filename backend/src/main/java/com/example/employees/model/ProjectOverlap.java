@@ -0,0 +1,11 @@
+package com.example.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProjectOverlap {
+    public int projectId;
+    public long daysWorked;
+}
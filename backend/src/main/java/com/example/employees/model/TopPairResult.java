@@ -0,0 +1,15 @@
+package com.example.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TopPairResult {
+    public int empId1;
+    public int empId2;
+    public long daysWorked;
+    public List<ProjectOverlap> projects;
+}
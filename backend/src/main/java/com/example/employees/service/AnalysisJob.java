@@ -0,0 +1,105 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.JobPhase;
+import com.example.employees.model.JobStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State of one asynchronous CSV analysis, updated by the worker thread and read by pollers.
+ */
+class AnalysisJob implements ProgressListener {
+
+    private final String id;
+    private final long totalBytes;
+
+    private volatile JobPhase phase = JobPhase.QUEUED;
+    private volatile long rowsProcessed;
+    private volatile long bytesRead;
+    private volatile int projectsToOverlap;
+    private final AtomicInteger projectsOverlapped = new AtomicInteger();
+
+    private volatile List<EmployeePairResult> result;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    AnalysisJob(String id, long totalBytes) {
+        this.id = id;
+        this.totalBytes = totalBytes;
+    }
+
+    String id() {
+        return id;
+    }
+
+    JobPhase phase() {
+        return phase;
+    }
+
+    List<EmployeePairResult> result() {
+        return result;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    void bytesRead(long bytes) {
+        this.bytesRead = bytes;
+    }
+
+    void completed(List<EmployeePairResult> result) {
+        this.result = result;
+        this.finishedAt = Instant.now();
+        this.phase = JobPhase.DONE;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.phase = JobPhase.FAILED;
+    }
+
+    @Override
+    public void phaseStarted(JobPhase phase) {
+        this.phase = phase;
+    }
+
+    @Override
+    public void rowsParsed(long rows) {
+        this.rowsProcessed = rows;
+    }
+
+    @Override
+    public void projectsToOverlap(int projects) {
+        this.projectsToOverlap = projects;
+    }
+
+    @Override
+    public void projectOverlapped() {
+        projectsOverlapped.incrementAndGet();
+    }
+
+    JobStatus status() {
+        return new JobStatus(id, phase, rowsProcessed, percentComplete(), error);
+    }
+
+    /**
+     * Parsing accounts for the first half (by bytes read), overlapping for the next 45% (by projects done).
+     */
+    private int percentComplete() {
+        return switch (phase) {
+            case QUEUED -> 0;
+            case PARSING -> totalBytes > 0 ? (int) Math.min(50, 50 * bytesRead / totalBytes) : 0;
+            case OVERLAPPING -> {
+                int projects = projectsToOverlap;
+                yield projects > 0 ? 50 + 45 * Math.min(projects, projectsOverlapped.get()) / projects : 50;
+            }
+            case AGGREGATING -> 95;
+            case DONE, FAILED -> 100;
+        };
+    }
+}
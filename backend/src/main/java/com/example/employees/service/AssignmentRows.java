@@ -0,0 +1,26 @@
+package com.example.employees.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Rows of an upload as raw column values, header already consumed, in whatever format the upload came in.
+ */
+interface AssignmentRows extends Closeable {
+
+    /**
+     * Header names of the columns read, in the order of the values {@link #next()} returns.
+     */
+    List<String> COLUMNS = List.of("EmpID", "ProjectID", "DateFrom", "DateTo");
+
+    int EMP_ID = 0;
+    int PROJECT_ID = 1;
+    int DATE_FROM = 2;
+    int DATE_TO = 3;
+
+    /**
+     * Values of the next row in {@link #COLUMNS} order, empty for missing cells; {@code null} at the end.
+     */
+    String[] next() throws IOException;
+}
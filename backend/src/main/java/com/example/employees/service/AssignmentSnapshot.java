@@ -0,0 +1,200 @@
+package com.example.employees.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Versioned binary columnar snapshot of parsed assignment rows.
+ * <p>
+ * Layout, all ints big-endian:
+ * <pre>
+ * magic "EMPS" | version | rowCount | projectCount
+ * projectCount x (projectId, firstRow, rowCount)   sorted by projectId
+ * rowCount x empId | rowCount x epochDayFrom | rowCount x epochDayTo
+ * CRC32C of everything above
+ * </pre>
+ * Rows are grouped by project in the order of the index, keeping their file order within a project.
+ * Dates are stored already resolved, so open-ended rows keep the day the snapshot was exported.
+ * Loading maps the file and only reads the project index; rows are decoded when a project is requested.
+ */
+class AssignmentSnapshot {
+
+    static final int MAGIC = 0x454D5053;
+    static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final int INDEX_ENTRY_BYTES = 3 * Integer.BYTES;
+    private static final int TRAILER_BYTES = Integer.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final int[] projectIds;
+    private final int[] firstRows;
+    private final int[] projectRows;
+    private final int empIdBase;
+    private final int dateFromBase;
+    private final int dateToBase;
+
+    private AssignmentSnapshot(MappedByteBuffer buffer, int rowCount, int projectCount) {
+        this.buffer = buffer;
+        this.rowCount = rowCount;
+        this.projectIds = new int[projectCount];
+        this.firstRows = new int[projectCount];
+        this.projectRows = new int[projectCount];
+        int position = HEADER_BYTES;
+        // The checksum only catches accidents, so the index must describe the rows exactly before it is used
+        long nextRow = 0;
+        for (int i = 0; i < projectCount; i++) {
+            projectIds[i] = buffer.getInt(position);
+            firstRows[i] = buffer.getInt(position + 4);
+            projectRows[i] = buffer.getInt(position + 8);
+            if (i > 0 && projectIds[i] <= projectIds[i - 1]) {
+                throw new IllegalArgumentException("Corrupt snapshot: project " + projectIds[i] + " out of order");
+            }
+            if (firstRows[i] != nextRow || projectRows[i] < 0) {
+                throw new IllegalArgumentException("Corrupt snapshot: project " + projectIds[i] + " has rows "
+                        + firstRows[i] + " to " + ((long) firstRows[i] + projectRows[i]) + ", expected to start at " + nextRow);
+            }
+            nextRow += projectRows[i];
+            position += INDEX_ENTRY_BYTES;
+        }
+        if (nextRow != rowCount) {
+            throw new IllegalArgumentException("Corrupt snapshot: index covers " + nextRow + " of " + rowCount + " rows");
+        }
+        this.empIdBase = position;
+        this.dateFromBase = empIdBase + rowCount * Integer.BYTES;
+        this.dateToBase = dateFromBase + rowCount * Integer.BYTES;
+    }
+
+    static void write(Map<Integer, List<ProjectEntry>> projectMap, OutputStream target) throws IOException {
+        TreeMap<Integer, List<ProjectEntry>> sorted = new TreeMap<>(projectMap);
+        int rows = 0;
+        for (List<ProjectEntry> entries : sorted.values()) {
+            rows += entries.size();
+        }
+
+        CRC32C checksum = new CRC32C();
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(target, 65536), checksum));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(rows);
+        out.writeInt(sorted.size());
+
+        int firstRow = 0;
+        for (Map.Entry<Integer, List<ProjectEntry>> entry : sorted.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(firstRow);
+            out.writeInt(entry.getValue().size());
+            firstRow += entry.getValue().size();
+        }
+        for (List<ProjectEntry> entries : sorted.values()) {
+            for (ProjectEntry entry : entries) {
+                out.writeInt(entry.empId);
+            }
+        }
+        for (List<ProjectEntry> entries : sorted.values()) {
+            for (ProjectEntry entry : entries) {
+                out.writeInt(entry.dateFrom);
+            }
+        }
+        for (List<ProjectEntry> entries : sorted.values()) {
+            for (ProjectEntry entry : entries) {
+                out.writeInt(entry.dateTo);
+            }
+        }
+        out.flush();
+        // Written past the checksummed stream so the trailer is not part of its own checksum
+        DataOutputStream trailer = new DataOutputStream(target);
+        trailer.writeInt((int) checksum.getValue());
+        trailer.flush();
+    }
+
+    /**
+     * Maps {@code file} and validates its header, size, checksum and project index.
+     *
+     * @throws IllegalArgumentException when the file is not a valid snapshot of a supported version
+     */
+    static AssignmentSnapshot map(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Not an assignment snapshot: unexpected size " + size);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an assignment snapshot: bad magic number");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + version + ", expected " + VERSION);
+        }
+        int rowCount = buffer.getInt(8);
+        int projectCount = buffer.getInt(12);
+        long expectedSize = HEADER_BYTES + (long) projectCount * INDEX_ENTRY_BYTES
+                + 3L * rowCount * Integer.BYTES + TRAILER_BYTES;
+        if (rowCount < 0 || projectCount < 0 || expectedSize != buffer.limit()) {
+            throw new IllegalArgumentException("Corrupt snapshot: " + buffer.limit() + " bytes for "
+                    + rowCount + " rows in " + projectCount + " projects");
+        }
+
+        int payload = buffer.limit() - TRAILER_BYTES;
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.slice(0, payload));
+        if ((int) checksum.getValue() != buffer.getInt(payload)) {
+            throw new IllegalArgumentException("Corrupt snapshot: checksum mismatch");
+        }
+        return new AssignmentSnapshot(buffer, rowCount, projectCount);
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    int projectCount() {
+        return projectIds.length;
+    }
+
+    int projectId(int index) {
+        return projectIds[index];
+    }
+
+    /**
+     * Decodes the rows of the project at {@code index} of the (projectId-sorted) index.
+     */
+    List<ProjectEntry> project(int index) {
+        int projectId = projectIds[index];
+        int first = firstRows[index];
+        int count = projectRows[index];
+        List<ProjectEntry> entries = new ArrayList<>(count);
+        for (int row = first; row < first + count; row++) {
+            int offset = row * Integer.BYTES;
+            entries.add(new ProjectEntry(buffer.getInt(empIdBase + offset), projectId,
+                    buffer.getInt(dateFromBase + offset), buffer.getInt(dateToBase + offset)));
+        }
+        return entries;
+    }
+
+    Map<Integer, List<ProjectEntry>> toProjectMap() {
+        Map<Integer, List<ProjectEntry>> projectMap = new HashMap<>();
+        for (int i = 0; i < projectIds.length; i++) {
+            projectMap.put(projectIds[i], project(i));
+        }
+        return projectMap;
+    }
+}
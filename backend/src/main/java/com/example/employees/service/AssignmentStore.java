@@ -0,0 +1,317 @@
+package com.example.employees.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact columnar store for parsed assignment rows, partitioned by project.
+ * <p>
+ * Each row takes three ints (employee id and epoch-day from/to) instead of a
+ * {@link ProjectEntry} object graph. Once the estimated heap footprint exceeds the
+ * configured budget, all in-memory partitions are appended to temp files bucketed
+ * by project id, and are read back one bucket at a time when projects are iterated.
+ * Buckets are split further on read-back until each fits the budget, so only a single
+ * project larger than the budget is ever read back in excess of it.
+ */
+class AssignmentStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AssignmentStore.class);
+
+    private static final int BUCKET_BITS = 6;
+    static final int SPILL_BUCKETS = 1 << BUCKET_BITS;
+
+    // Bucket files can be split by further hash bits until all 32 are used
+    private static final int MAX_SPLIT_LEVEL = Integer.SIZE / BUCKET_BITS - 1;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    // Project id, employee id and epoch-day from/to per spilled row
+    private static final int SPILL_ROW_BYTES = 4 * Integer.BYTES;
+    // Sort key plus employee id and dates per row read back from a bucket file
+    private static final int READ_BACK_ROW_BYTES = Long.BYTES + 3 * Integer.BYTES;
+
+    private static final int INITIAL_PARTITION_CAPACITY = 8;
+    private static final long PARTITION_OVERHEAD_BYTES = 96;
+
+    private final long heapBudgetBytes;
+    private final Path spillDir;
+
+    private Map<Integer, Partition> partitions = new HashMap<>();
+    private long estimatedBytes;
+    private long rowCount;
+
+    private Path spillRoot;
+    private DataOutputStream[] spillOutputs;
+    private int spillCount;
+    private long peakReadBackBytes;
+
+    AssignmentStore(long heapBudgetBytes, Path spillDir) {
+        this.heapBudgetBytes = heapBudgetBytes;
+        this.spillDir = spillDir;
+    }
+
+    void add(int projectId, int empId, int epochDayFrom, int epochDayTo) {
+        Partition partition = partitions.get(projectId);
+        if (partition == null) {
+            partition = new Partition(INITIAL_PARTITION_CAPACITY);
+            partitions.put(projectId, partition);
+            estimatedBytes += PARTITION_OVERHEAD_BYTES + partition.capacityBytes();
+        }
+        long before = partition.capacityBytes();
+        partition.add(empId, epochDayFrom, epochDayTo);
+        estimatedBytes += partition.capacityBytes() - before;
+        rowCount++;
+
+        if (estimatedBytes > heapBudgetBytes) {
+            spill();
+        }
+    }
+
+    long rowCount() {
+        return rowCount;
+    }
+
+    int spillCount() {
+        return spillCount;
+    }
+
+    /**
+     * Hands every project's rows to {@code consumer}, one project at a time.
+     * Once spilled, the rows still held in memory are spilled as well and the buckets are read back one by one;
+     * a bucket too large for the heap budget is first split into smaller ones by further bits of the project hash.
+     */
+    void forEachProject(BiConsumer<Integer, List<ProjectEntry>> consumer) throws IOException {
+        if (spillOutputs == null) {
+            for (Map.Entry<Integer, Partition> entry : partitions.entrySet()) {
+                consumer.accept(entry.getKey(), entry.getValue().toEntries(entry.getKey()));
+            }
+            return;
+        }
+
+        if (!partitions.isEmpty()) {
+            spill();
+        }
+        for (DataOutputStream out : spillOutputs) {
+            out.flush();
+        }
+        for (int bucket = 0; bucket < SPILL_BUCKETS; bucket++) {
+            readBucket(bucketFile(bucket), 0, consumer);
+        }
+    }
+
+    /**
+     * Largest estimated heap footprint of the rows read back at once from the spill files.
+     */
+    long peakReadBackBytes() {
+        return peakReadBackBytes;
+    }
+
+    private void spill() {
+        try {
+            if (spillOutputs == null) {
+                spillRoot = Files.createTempDirectory(spillDir, "assignments-");
+                spillOutputs = new DataOutputStream[SPILL_BUCKETS];
+                for (int bucket = 0; bucket < SPILL_BUCKETS; bucket++) {
+                    spillOutputs[bucket] = new DataOutputStream(new BufferedOutputStream(
+                            Files.newOutputStream(bucketFile(bucket)), 8192));
+                }
+                log.info("Heap budget of {} bytes exceeded, spilling assignments to {}", heapBudgetBytes, spillRoot);
+            }
+            for (Map.Entry<Integer, Partition> entry : partitions.entrySet()) {
+                int projectId = entry.getKey();
+                DataOutputStream out = spillOutputs[bucketOf(projectId, 0)];
+                Partition partition = entry.getValue();
+                for (int i = 0; i < partition.size; i++) {
+                    out.writeInt(projectId);
+                    out.writeInt(partition.empIds[i]);
+                    out.writeInt(partition.dateFrom[i]);
+                    out.writeInt(partition.dateTo[i]);
+                }
+            }
+            spillCount++;
+            log.debug("Spill #{} wrote {} projects", spillCount, partitions.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill assignments to " + spillDir, e);
+        }
+        partitions = new HashMap<>();
+        estimatedBytes = 0;
+    }
+
+    private void readBucket(Path file, int level, BiConsumer<Integer, List<ProjectEntry>> consumer) throws IOException {
+        long rows = Files.size(file) / SPILL_ROW_BYTES;
+        if (rows == 0) {
+            return;
+        }
+        if (rows * READ_BACK_ROW_BYTES > heapBudgetBytes && level < MAX_SPLIT_LEVEL) {
+            Path[] parts = split(file, level + 1);
+            if (parts != null) {
+                try {
+                    for (Path part : parts) {
+                        readBucket(part, level + 1, consumer);
+                        Files.delete(part);
+                    }
+                } finally {
+                    for (Path part : parts) {
+                        Files.deleteIfExists(part);
+                    }
+                }
+                return;
+            }
+        }
+
+        // Rows sorted by project through (projectId << 32 | row index) keys, so each project is handed over in turn
+        int count = Math.toIntExact(rows);
+        long[] order = new long[count];
+        int[] empIds = new int[count];
+        int[] dateFrom = new int[count];
+        int[] dateTo = new int[count];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 65536))) {
+            for (int i = 0; i < count; i++) {
+                order[i] = (long) in.readInt() << 32 | i;
+                empIds[i] = in.readInt();
+                dateFrom[i] = in.readInt();
+                dateTo[i] = in.readInt();
+            }
+        }
+        peakReadBackBytes = Math.max(peakReadBackBytes, rows * READ_BACK_ROW_BYTES);
+        Arrays.sort(order);
+
+        for (int start = 0; start < count; ) {
+            int projectId = (int) (order[start] >> 32);
+            int end = start;
+            while (end < count && (int) (order[end] >> 32) == projectId) {
+                end++;
+            }
+            List<ProjectEntry> entries = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                int row = (int) order[i];
+                entries.add(new ProjectEntry(empIds[row], projectId, dateFrom[row], dateTo[row]));
+            }
+            consumer.accept(projectId, entries);
+            start = end;
+        }
+    }
+
+    // Splits a bucket file by the next bits of the project hash, or returns null when it holds a single project
+    private Path[] split(Path file, int level) throws IOException {
+        Path[] parts = new Path[SPILL_BUCKETS];
+        DataOutputStream[] outputs = new DataOutputStream[SPILL_BUCKETS];
+        boolean singleProject = true;
+        try {
+            for (int part = 0; part < SPILL_BUCKETS; part++) {
+                parts[part] = Files.createTempFile(spillRoot, "split-", ".bin");
+                outputs[part] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(parts[part]), 8192));
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 65536))) {
+                long rows = Files.size(file) / SPILL_ROW_BYTES;
+                int firstProject = 0;
+                for (long i = 0; i < rows; i++) {
+                    int projectId = in.readInt();
+                    if (i == 0) {
+                        firstProject = projectId;
+                    }
+                    singleProject &= projectId == firstProject;
+                    DataOutputStream out = outputs[bucketOf(projectId, level)];
+                    out.writeInt(projectId);
+                    out.writeInt(in.readInt());
+                    out.writeInt(in.readInt());
+                    out.writeInt(in.readInt());
+                }
+            }
+        } finally {
+            for (int part = 0; part < SPILL_BUCKETS; part++) {
+                if (outputs[part] != null) {
+                    outputs[part].close();
+                }
+            }
+            if (singleProject) {
+                for (Path part : parts) {
+                    if (part != null) {
+                        Files.deleteIfExists(part);
+                    }
+                }
+            }
+        }
+        if (singleProject) {
+            log.debug("Project in {} alone exceeds the heap budget of {} bytes, reading it whole", file.getFileName(), heapBudgetBytes);
+            return null;
+        }
+        log.debug("Split {} into {} buckets at level {}", file.getFileName(), SPILL_BUCKETS, level);
+        return parts;
+    }
+
+    private Path bucketFile(int bucket) {
+        return spillRoot.resolve("bucket-" + bucket + ".bin");
+    }
+
+    // Level 0 takes the top BUCKET_BITS of the Fibonacci hash of the project id, each split level the next ones
+    private static int bucketOf(int projectId, int level) {
+        return (projectId * HASH_MULTIPLIER) >>> (Integer.SIZE - BUCKET_BITS * (level + 1)) & (SPILL_BUCKETS - 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (spillOutputs == null) {
+            return;
+        }
+        for (int bucket = 0; bucket < SPILL_BUCKETS; bucket++) {
+            spillOutputs[bucket].close();
+            Files.deleteIfExists(bucketFile(bucket));
+        }
+        Files.deleteIfExists(spillRoot);
+        spillOutputs = null;
+    }
+
+    private static class Partition {
+        int[] empIds;
+        int[] dateFrom;
+        int[] dateTo;
+        int size;
+
+        Partition(int capacity) {
+            empIds = new int[capacity];
+            dateFrom = new int[capacity];
+            dateTo = new int[capacity];
+        }
+
+        void add(int empId, int epochDayFrom, int epochDayTo) {
+            if (size == empIds.length) {
+                int capacity = size * 2;
+                empIds = Arrays.copyOf(empIds, capacity);
+                dateFrom = Arrays.copyOf(dateFrom, capacity);
+                dateTo = Arrays.copyOf(dateTo, capacity);
+            }
+            empIds[size] = empId;
+            dateFrom[size] = epochDayFrom;
+            dateTo[size] = epochDayTo;
+            size++;
+        }
+
+        long capacityBytes() {
+            return 3L * Integer.BYTES * empIds.length;
+        }
+
+        List<ProjectEntry> toEntries(int projectId) {
+            List<ProjectEntry> entries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                entries.add(new ProjectEntry(empIds[i], projectId, dateFrom[i], dateTo[i]));
+            }
+            return entries;
+        }
+    }
+}
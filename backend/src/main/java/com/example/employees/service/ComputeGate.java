@@ -0,0 +1,37 @@
+package com.example.employees.service;
+
+import java.time.Duration;
+
+/**
+ * A slot a computation holds while it runs, taken by the service itself where reading the input and
+ * computing the pairs are separate phases, so that slow transfers do not hold a slot.
+ */
+public interface ComputeGate {
+
+    ComputeGate NONE = new ComputeGate() {
+        @Override
+        public boolean enter() {
+            return true;
+        }
+
+        @Override
+        public void exit() {
+        }
+
+        @Override
+        public Duration maxWait() {
+            return Duration.ZERO;
+        }
+    };
+
+    /**
+     * Waits for a slot; every successful call must be paired with {@link #exit()}.
+     *
+     * @return false when no slot freed up within {@link #maxWait()}
+     */
+    boolean enter() throws InterruptedException;
+
+    void exit();
+
+    Duration maxWait();
+}
@@ -0,0 +1,47 @@
+package com.example.employees.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Reports the running number of bytes read from the wrapped stream.
+ */
+class CountingInputStream extends FilterInputStream {
+
+    private final LongConsumer onCount;
+    private long count;
+
+    CountingInputStream(InputStream in, LongConsumer onCount) {
+        super(in);
+        this.onCount = onCount;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            onCount.accept(++count);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            count += read;
+            onCount.accept(count);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count += skipped;
+        onCount.accept(count);
+        return skipped;
+    }
+}
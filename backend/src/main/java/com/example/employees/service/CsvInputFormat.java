@@ -0,0 +1,63 @@
+package com.example.employees.service;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Iterator;
+
+/**
+ * Plain CSV with an {@code EmpID,ProjectID,DateFrom,DateTo} header, in any column order. Matches every upload,
+ * so it is the fallback when no other signature is found. The row budget does not apply: plain uploads are
+ * bounded by their size limit.
+ */
+class CsvInputFormat implements InputFormat {
+
+    @Override
+    public String name() {
+        return "csv";
+    }
+
+    @Override
+    public boolean matches(byte[] head, int length) {
+        return true;
+    }
+
+    @Override
+    public AssignmentRows open(InputStream input, long maxRows) throws IOException {
+        return rows(new InputStreamReader(input));
+    }
+
+    /**
+     * Rows of the CSV text of {@code reader}; closing them leaves the reader open.
+     */
+    static AssignmentRows rows(Reader reader) throws IOException {
+        CSVParser parser = CSVFormat.DEFAULT
+                .withFirstRecordAsHeader()
+                .parse(reader);
+        Iterator<CSVRecord> records = parser.iterator();
+
+        return new AssignmentRows() {
+            @Override
+            public String[] next() {
+                if (!records.hasNext()) {
+                    return null;
+                }
+                CSVRecord record = records.next();
+                String[] values = new String[COLUMNS.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = record.get(COLUMNS.get(i));
+                }
+                return values;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
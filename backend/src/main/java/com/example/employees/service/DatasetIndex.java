@@ -0,0 +1,150 @@
+package com.example.employees.service;
+
+import com.example.employees.model.ColleagueResult;
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.ProjectOverlap;
+import com.example.employees.model.TopPairResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory query index of one dataset: an {@link ProjectIntervalIndex} per project plus every
+ * employee's rows, so questions about one employee or one project never touch the rest of the dataset.
+ * Day counts follow the same rules as the pair totals, every pair of overlapping rows adds its shared days.
+ */
+class DatasetIndex {
+
+    private static final List<ProjectEntry> NO_ROWS = List.of();
+
+    private final Map<Integer, ProjectIntervalIndex> projects = new HashMap<>();
+
+    private final Map<Integer, List<ProjectEntry>> rowsByEmployee = new HashMap<>();
+
+    /**
+     * @param projectMap rows per project, each list sorted by start date
+     */
+    DatasetIndex(Map<Integer, List<ProjectEntry>> projectMap) {
+        for (Map.Entry<Integer, List<ProjectEntry>> entry : projectMap.entrySet()) {
+            projects.put(entry.getKey(), new ProjectIntervalIndex(entry.getValue()));
+            for (ProjectEntry row : entry.getValue()) {
+                rowsByEmployee.computeIfAbsent(row.empId, k -> new ArrayList<>()).add(row);
+            }
+        }
+    }
+
+    /**
+     * Everyone who shared days with {@code empId}, optionally only on {@code projectId} and only within
+     * {@code [from, to]}, longest together first.
+     */
+    List<ColleagueResult> colleagues(int empId, Integer projectId, LocalDate from, LocalDate to) {
+        int windowFrom = from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE;
+        int windowTo = to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+        Map<Integer, Map<Integer, Long>> daysByColleague = new HashMap<>();
+
+        for (ProjectEntry row : rowsByEmployee.getOrDefault(empId, NO_ROWS)) {
+            if (projectId != null && row.projectId != projectId) {
+                continue;
+            }
+            ProjectEntry clipped = clip(row, windowFrom, windowTo);
+            if (clipped == null) {
+                continue;
+            }
+            ProjectIntervalIndex index = projects.get(row.projectId);
+            index.overlapping(clipped.dateFrom, clipped.dateTo, i -> {
+                ProjectEntry other = index.row(i);
+                long days = other.empId != empId ? clipped.overlapDays(other) : 0;
+                if (days > 0) {
+                    daysByColleague.computeIfAbsent(other.empId, k -> new TreeMap<>())
+                            .merge(row.projectId, days, Long::sum);
+                }
+            });
+        }
+
+        List<ColleagueResult> results = new ArrayList<>(daysByColleague.size());
+        daysByColleague.forEach((colleague, perProject) -> {
+            List<ProjectOverlap> breakdown = new ArrayList<>(perProject.size());
+            long total = 0;
+            for (Map.Entry<Integer, Long> project : perProject.entrySet()) {
+                breakdown.add(new ProjectOverlap(project.getKey(), project.getValue()));
+                total += project.getValue();
+            }
+            results.add(new ColleagueResult(colleague, total, breakdown));
+        });
+        results.sort(Comparator.comparingLong((ColleagueResult r) -> r.daysWorked).reversed()
+                .thenComparingInt(r -> r.empId));
+        return results;
+    }
+
+    /**
+     * Days two employees worked together, broken down by project.
+     */
+    TopPairResult pair(int empId1, int empId2) {
+        List<ProjectEntry> others = rowsByEmployee.getOrDefault(empId2, NO_ROWS);
+        Map<Integer, Long> perProject = new TreeMap<>();
+        for (ProjectEntry row : rowsByEmployee.getOrDefault(empId1, NO_ROWS)) {
+            for (ProjectEntry other : others) {
+                long days = other.projectId == row.projectId ? row.overlapDays(other) : 0;
+                if (days > 0) {
+                    perProject.merge(row.projectId, days, Long::sum);
+                }
+            }
+        }
+
+        List<ProjectOverlap> breakdown = new ArrayList<>(perProject.size());
+        long total = 0;
+        for (Map.Entry<Integer, Long> project : perProject.entrySet()) {
+            breakdown.add(new ProjectOverlap(project.getKey(), project.getValue()));
+            total += project.getValue();
+        }
+        return new TopPairResult(Math.min(empId1, empId2), Math.max(empId1, empId2), total, breakdown);
+    }
+
+    /**
+     * Pairs that shared days on {@code projectId} within {@code [from, to]}, counting only those days,
+     * ordered by {@code empId1} then {@code empId2}.
+     */
+    List<EmployeePairResult> overlapsWithin(int projectId, LocalDate from, LocalDate to) {
+        ProjectIntervalIndex index = projects.get(projectId);
+        if (index == null) {
+            return List.of();
+        }
+        int windowFrom = (int) from.toEpochDay();
+        int windowTo = (int) to.toEpochDay();
+        List<ProjectEntry> hits = new ArrayList<>();
+        index.overlapping(windowFrom, windowTo, i -> hits.add(clip(index.row(i), windowFrom, windowTo)));
+
+        PairTable totals = new PairTable();
+        for (int i = 0; i < hits.size(); i++) {
+            ProjectEntry row = hits.get(i);
+            for (int j = i + 1; j < hits.size(); j++) {
+                ProjectEntry other = hits.get(j);
+                long days = other.empId != row.empId ? row.overlapDays(other) : 0;
+                if (days > 0) {
+                    totals.add(row.empId, other.empId, days);
+                }
+            }
+        }
+        List<EmployeePairResult> results = new ArrayList<>(totals.size());
+        totals.forEachOrdered((empId1, empId2, days) -> results.add(new EmployeePairResult(empId1, empId2, days)));
+        return results;
+    }
+
+    // The part of 'row' inside [from, to], or null when there is none
+    private static ProjectEntry clip(ProjectEntry row, int from, int to) {
+        int start = Math.max(row.dateFrom, from);
+        int end = Math.min(row.dateTo, to);
+        if (start > end) {
+            return null;
+        }
+        if (start == row.dateFrom && end == row.dateTo) {
+            return row;
+        }
+        return new ProjectEntry(row.empId, row.projectId, start, end);
+    }
+}
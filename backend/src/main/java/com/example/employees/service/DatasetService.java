@@ -0,0 +1,362 @@
+package com.example.employees.service;
+
+import com.example.employees.model.ColleagueResult;
+import com.example.employees.model.DatasetInfo;
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.TopPairResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent datasets that grow by appended rows.
+ * <p>
+ * A dataset keeps its rows per project and its pair totals on local disk (see {@link DatasetStore}).
+ * Appending rows only reads and rewrites the projects the new rows belong to: the totals gain the
+ * overlaps of the new rows with each other and with the project's existing rows, which are found by
+ * binary search on the start-date-sorted rows. Open-ended rows are resolved to the day they were
+ * ingested, so a full recompute of the stored rows gives exactly the incrementally maintained totals.
+ * <p>
+ * Queries about single employees or projects are answered from a {@link DatasetIndex} that is built on
+ * first use and kept for the {@code datasets.indexed-max} most recently queried datasets.
+ */
+@Service
+public class DatasetService {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetService.class);
+
+    private static final Pattern DATASET_ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    private final EmployeePairService employeePairService;
+
+    private final Path datasetsDir;
+
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    private final int maxIndexed;
+
+    // Access order puts the least recently queried dataset first
+    private final LinkedHashMap<String, DatasetIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    public DatasetService(EmployeePairService employeePairService,
+                          @Value("${datasets.dir:data/datasets}") String datasetsDir,
+                          @Value("${datasets.indexed-max:8}") int maxIndexed) {
+        this.employeePairService = employeePairService;
+        this.datasetsDir = Path.of(datasetsDir);
+        this.maxIndexed = maxIndexed;
+    }
+
+    /**
+     * Creates a dataset from a full upload.
+     */
+    public DatasetInfo create(MultipartFile file) throws IOException {
+        String id = UUID.randomUUID().toString();
+        DatasetStore store = store(id);
+        Map<Integer, List<ProjectEntry>> projectMap =
+                employeePairService.parseProjects(file.getInputStream());
+
+        synchronized (lock(id)) {
+            store.create();
+            // Computed first so the stored rows are the merged ones the totals were built from
+            PairTable totals = employeePairService.computePairTotals(projectMap);
+            Map<Integer, List<ProjectEntry>> sorted = new HashMap<>();
+            for (Map.Entry<Integer, List<ProjectEntry>> entry : projectMap.entrySet()) {
+                List<ProjectEntry> rows = new ArrayList<>(entry.getValue());
+                rows.sort(DatasetStore.BY_DATE_FROM);
+                sorted.put(entry.getKey(), rows);
+            }
+            store.commit(sorted, totals);
+            log.info("Created dataset {} with {} projects and {} pairs", id, projectMap.size(), totals.size());
+            return info(id, store, totals, projectMap.size());
+        }
+    }
+
+    /**
+     * Appends rows to a dataset, updating only the pair totals of the projects they belong to. The new rows
+     * and totals are committed together, so a failed append leaves the dataset as it was.
+     */
+    public Optional<DatasetInfo> appendRows(String id, MultipartFile file) throws IOException {
+        DatasetStore store = existing(id);
+        if (store == null) {
+            return Optional.empty();
+        }
+        Map<Integer, List<ProjectEntry>> delta =
+                employeePairService.parseProjects(file.getInputStream());
+
+        synchronized (lock(id)) {
+            PairTable totals = store.readPairs();
+            Map<Integer, List<ProjectEntry>> incremental = new HashMap<>();
+            Map<Integer, List<ProjectEntry>> stored = new HashMap<>();
+            Map<Integer, List<ProjectEntry>> changed = new HashMap<>();
+            int rejoined = 0;
+            for (Map.Entry<Integer, List<ProjectEntry>> entry : delta.entrySet()) {
+                List<ProjectEntry> rows = store.readProject(entry.getKey());
+                if (employeePairService.mergesStints() && StintMerger.touchesExisting(rows, entry.getValue())) {
+                    // New rows extend stored stints, which changes existing pairs too
+                    changed.put(entry.getKey(), replaceProjectTotals(entry.getKey(), rows, entry.getValue(), totals));
+                    rejoined++;
+                } else {
+                    incremental.put(entry.getKey(), entry.getValue());
+                    stored.put(entry.getKey(), rows);
+                }
+            }
+
+            // Overlaps among the new rows themselves
+            totals.mergeFrom(employeePairService.computePairTotals(incremental));
+            long comparisons = 0;
+            for (Map.Entry<Integer, List<ProjectEntry>> entry : incremental.entrySet()) {
+                List<ProjectEntry> rows = stored.get(entry.getKey());
+                List<ProjectEntry> added = new ArrayList<>(entry.getValue());
+                added.sort(DatasetStore.BY_DATE_FROM);
+                for (ProjectEntry row : added) {
+                    comparisons += accumulateWithExisting(row, rows, totals);
+                }
+                rows.addAll(added);
+                // Both halves are sorted, so this is a single merge pass
+                rows.sort(DatasetStore.BY_DATE_FROM);
+                changed.put(entry.getKey(), rows);
+            }
+            if (rejoined > 0) {
+                totals = withoutEmptyPairs(totals);
+            }
+            store.commit(changed, totals);
+            dropIndex(id);
+            log.info("Appended to dataset {}: {} projects updated ({} recomputed for merged stints), {} comparisons with existing rows",
+                    id, delta.size(), rejoined, comparisons);
+            return Optional.of(info(id, store, totals, delta.size()));
+        }
+    }
+
+    /**
+     * Recomputes the pair totals of a dataset from all of its stored rows.
+     */
+    public Optional<DatasetInfo> recompute(String id) throws IOException {
+        DatasetStore store = existing(id);
+        if (store == null) {
+            return Optional.empty();
+        }
+        synchronized (lock(id)) {
+            Map<Integer, List<ProjectEntry>> projectMap = new HashMap<>();
+            for (int projectId : store.projectIds()) {
+                projectMap.put(projectId, store.readProject(projectId));
+            }
+            PairTable totals = employeePairService.computePairTotals(projectMap);
+            if (!sameTotals(totals, store.readPairs())) {
+                log.warn("Recomputed totals of dataset {} differ from the stored totals, replacing them", id);
+            }
+            store.commit(Map.of(), totals);
+            return Optional.of(info(id, store, totals, projectMap.size()));
+        }
+    }
+
+    public Optional<DatasetInfo> info(String id) throws IOException {
+        DatasetStore store = existing(id);
+        if (store == null) {
+            return Optional.empty();
+        }
+        synchronized (lock(id)) {
+            return Optional.of(info(id, store, store.readPairs(), 0));
+        }
+    }
+
+    public Optional<List<EmployeePairResult>> pairs(String id) throws IOException {
+        DatasetStore store = existing(id);
+        if (store == null) {
+            return Optional.empty();
+        }
+        synchronized (lock(id)) {
+            return Optional.of(employeePairService.toResults(store.readPairs()));
+        }
+    }
+
+    public boolean delete(String id) throws IOException {
+        DatasetStore store = existing(id);
+        if (store == null) {
+            return false;
+        }
+        synchronized (lock(id)) {
+            store.delete();
+            dropIndex(id);
+        }
+        locks.remove(id);
+        log.info("Deleted dataset {}", id);
+        return true;
+    }
+
+    /**
+     * Employees who shared days with {@code empId}, optionally restricted to one project and a date window.
+     */
+    public Optional<List<ColleagueResult>> colleagues(String id, int empId, Integer projectId,
+                                                      LocalDate from, LocalDate to) throws IOException {
+        return index(id).map(index -> index.colleagues(empId, projectId, from, to));
+    }
+
+    /**
+     * Days two employees worked together with the per-project breakdown.
+     */
+    public Optional<TopPairResult> pair(String id, int empId1, int empId2) throws IOException {
+        return index(id).map(index -> index.pair(empId1, empId2));
+    }
+
+    /**
+     * Pairs that overlapped on one project within {@code [from, to]}, counting only the days inside the window.
+     */
+    public Optional<List<EmployeePairResult>> overlapsWithin(String id, int projectId,
+                                                             LocalDate from, LocalDate to) throws IOException {
+        return index(id).map(index -> index.overlapsWithin(projectId, from, to));
+    }
+
+    private Optional<DatasetIndex> index(String id) throws IOException {
+        DatasetStore store = existing(id);
+        if (store == null) {
+            return Optional.empty();
+        }
+        synchronized (lock(id)) {
+            DatasetIndex index;
+            synchronized (indexes) {
+                index = indexes.get(id);
+            }
+            if (index == null) {
+                Map<Integer, List<ProjectEntry>> projectMap = new HashMap<>();
+                for (int projectId : store.projectIds()) {
+                    projectMap.put(projectId, store.readProject(projectId));
+                }
+                index = new DatasetIndex(projectMap);
+                log.info("Indexed dataset {} with {} projects for queries", id, projectMap.size());
+                cacheIndex(id, index);
+            }
+            return Optional.of(index);
+        }
+    }
+
+    private void cacheIndex(String id, DatasetIndex index) {
+        synchronized (indexes) {
+            indexes.put(id, index);
+            Iterator<String> eldest = indexes.keySet().iterator();
+            while (indexes.size() > maxIndexed && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private void dropIndex(String id) {
+        synchronized (indexes) {
+            indexes.remove(id);
+        }
+    }
+
+    /**
+     * Swaps the project's share of {@code totals} for the share of its stored rows merged with {@code added},
+     * and returns the merged rows sorted by start date.
+     */
+    private List<ProjectEntry> replaceProjectTotals(int projectId, List<ProjectEntry> rows, List<ProjectEntry> added,
+                                                    PairTable totals) throws IOException {
+        Map<Integer, List<ProjectEntry>> before = new HashMap<>();
+        before.put(projectId, rows);
+        employeePairService.computePairTotals(before)
+                .forEach((empId1, empId2, days) -> totals.add(empId1, empId2, -days));
+
+        List<ProjectEntry> union = new ArrayList<>(rows);
+        union.addAll(added);
+        Map<Integer, List<ProjectEntry>> after = new HashMap<>();
+        after.put(projectId, union);
+        totals.mergeFrom(employeePairService.computePairTotals(after));
+
+        List<ProjectEntry> merged = new ArrayList<>(after.get(projectId));
+        merged.sort(DatasetStore.BY_DATE_FROM);
+        return merged;
+    }
+
+    // Pairs whose days were taken away entirely by replaceProjectTotals
+    private static PairTable withoutEmptyPairs(PairTable totals) {
+        PairTable cleaned = new PairTable(totals.size());
+        totals.forEach((empId1, empId2, days) -> {
+            if (days != 0) {
+                cleaned.add(empId1, empId2, days);
+            }
+        });
+        return cleaned;
+    }
+
+    /**
+     * Adds the overlaps of {@code row} with the start-date-sorted {@code rows}; only rows starting
+     * no later than {@code row} ends can overlap it.
+     */
+    private static long accumulateWithExisting(ProjectEntry row, List<ProjectEntry> rows, PairTable totals) {
+        int end = upperBound(rows, row);
+        long comparisons = 0;
+        for (int i = 0; i < end; i++) {
+            ProjectEntry other = rows.get(i);
+            if (other.dateTo < row.dateFrom) {
+                continue;
+            }
+            comparisons++;
+            long days = other.overlapDays(row);
+            if (days > 0) {
+                totals.add(other.empId, row.empId, days);
+            }
+        }
+        return comparisons;
+    }
+
+    // Index of the first row starting after 'row' ends
+    private static int upperBound(List<ProjectEntry> rows, ProjectEntry row) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (rows.get(mid).dateFrom > row.dateTo) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static boolean sameTotals(PairTable expected, PairTable actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        boolean[] same = {true};
+        expected.forEach((empId1, empId2, days) -> same[0] &= actual.get(empId1, empId2) == days);
+        return same[0];
+    }
+
+    private DatasetInfo info(String id, DatasetStore store, PairTable totals, int affectedProjects) throws IOException {
+        return new DatasetInfo(id, store.rowCount(), store.projectIds().size(), totals.size(), affectedProjects);
+    }
+
+    private DatasetStore existing(String id) {
+        if (!DATASET_ID.matcher(id).matches()) {
+            return null;
+        }
+        DatasetStore store = store(id);
+        return store.exists() ? store : null;
+    }
+
+    private DatasetStore store(String id) {
+        return new DatasetStore(datasetsDir.resolve(id));
+    }
+
+    private Object lock(String id) {
+        return locks.computeIfAbsent(id, key -> new Object());
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.employees.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * On-disk layout of one dataset.
+ * <p>
+ * Every project has its own file of {@code (empId, epochDayFrom, epochDayTo)} int triples sorted by
+ * start date, so the rows of a project double as an interval index. The pair totals of the whole
+ * dataset are kept as {@code (pairKey, days)} long pairs. Which files make up the dataset is recorded
+ * in {@code manifest.bin}: every {@link #commit} writes the changed projects and the totals to files of
+ * a new generation and then moves a new manifest over the old one, so a crash part way through leaves
+ * the previous rows and totals in place. Files no manifest refers to are removed by the next commit.
+ */
+class DatasetStore {
+
+    private static final String PROJECT_SUFFIX = ".bin";
+    private static final String PAIRS_PREFIX = "pairs-";
+    private static final int ROW_BYTES = 3 * Integer.BYTES;
+    private static final int PAIR_BYTES = 2 * Long.BYTES;
+
+    static final Comparator<ProjectEntry> BY_DATE_FROM = Comparator.comparingInt(pe -> pe.dateFrom);
+
+    private final Path root;
+
+    // Read on first use; callers hold the dataset's lock
+    private Manifest manifest;
+
+    DatasetStore(Path root) {
+        this.root = root;
+    }
+
+    boolean exists() {
+        return Files.isRegularFile(manifestFile());
+    }
+
+    void create() throws IOException {
+        Files.createDirectories(projectsDir());
+        manifest = new Manifest(0, 0, new TreeMap<>());
+    }
+
+    void delete() throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    List<Integer> projectIds() throws IOException {
+        return new ArrayList<>(manifest().projects.keySet());
+    }
+
+    long rowCount() throws IOException {
+        long rows = 0;
+        for (Map.Entry<Integer, Long> project : manifest().projects.entrySet()) {
+            rows += Files.size(projectFile(project.getKey(), project.getValue())) / ROW_BYTES;
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the project's rows sorted by start date, or an empty list for a project the dataset does not have.
+     */
+    List<ProjectEntry> readProject(int projectId) throws IOException {
+        Long generation = manifest().projects.get(projectId);
+        if (generation == null) {
+            return new ArrayList<>();
+        }
+        Path file = projectFile(projectId, generation);
+        int rows = (int) (Files.size(file) / ROW_BYTES);
+        List<ProjectEntry> entries = new ArrayList<>(rows);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 65536))) {
+            for (int i = 0; i < rows; i++) {
+                entries.add(new ProjectEntry(in.readInt(), projectId, in.readInt(), in.readInt()));
+            }
+        }
+        return entries;
+    }
+
+    PairTable readPairs() throws IOException {
+        Manifest current = manifest();
+        if (current.generation == 0) {
+            return new PairTable();
+        }
+        Path file = pairsFile(current.pairsGeneration);
+        int pairs = (int) (Files.size(file) / PAIR_BYTES);
+        PairTable table = new PairTable(pairs);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 65536))) {
+            for (int i = 0; i < pairs; i++) {
+                table.addKey(in.readLong(), in.readLong());
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Replaces the rows of the given projects and the pair totals in one step: either all of them are
+     * visible afterwards or, if writing fails, none. Rows must already be sorted by start date.
+     */
+    void commit(Map<Integer, List<ProjectEntry>> projects, PairTable totals) throws IOException {
+        Manifest current = manifest();
+        long generation = current.generation + 1;
+        TreeMap<Integer, Long> files = new TreeMap<>(current.projects);
+        for (Map.Entry<Integer, List<ProjectEntry>> project : projects.entrySet()) {
+            List<ProjectEntry> entries = project.getValue();
+            write(projectFile(project.getKey(), generation), out -> {
+                for (ProjectEntry entry : entries) {
+                    out.writeInt(entry.empId);
+                    out.writeInt(entry.dateFrom);
+                    out.writeInt(entry.dateTo);
+                }
+            });
+            files.put(project.getKey(), generation);
+        }
+        write(pairsFile(generation), out -> writePairs(out, totals));
+
+        Manifest next = new Manifest(generation, generation, files);
+        Path temp = Files.createTempFile(root, "manifest", ".tmp");
+        try {
+            write(temp, next::writeTo);
+            Files.move(temp, manifestFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        manifest = next;
+        removeUnreferenced();
+    }
+
+    private static void writePairs(DataOutputStream out, PairTable totals) throws IOException {
+        IOException[] failure = new IOException[1];
+        totals.forEach((empId1, empId2, days) -> {
+            if (failure[0] != null) {
+                return;
+            }
+            try {
+                out.writeLong(PairTable.key(empId1, empId2));
+                out.writeLong(days);
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    // Files are synced before the manifest that refers to them is moved into place
+    private static void write(Path target, Writer writer) throws IOException {
+        try (FileOutputStream file = new FileOutputStream(target.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 65536))) {
+            writer.write(out);
+            out.flush();
+            file.getFD().sync();
+        }
+    }
+
+    // Superseded generations, and files of commits that failed before their manifest was moved into place
+    private void removeUnreferenced() throws IOException {
+        Set<Path> referenced = new HashSet<>();
+        manifest.projects.forEach((projectId, generation) -> referenced.add(projectFile(projectId, generation)));
+        referenced.add(pairsFile(manifest.pairsGeneration));
+        List<Path> candidates;
+        try (Stream<Path> projectFiles = Files.list(projectsDir()); Stream<Path> rootFiles = Files.list(root)) {
+            candidates = Stream.concat(projectFiles, rootFiles.filter(f -> f.getFileName().toString().startsWith(PAIRS_PREFIX)))
+                    .filter(Files::isRegularFile)
+                    .toList();
+        }
+        for (Path file : candidates) {
+            if (!referenced.contains(file)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private Manifest manifest() throws IOException {
+        if (manifest == null) {
+            manifest = Manifest.read(manifestFile());
+        }
+        return manifest;
+    }
+
+    private Path projectsDir() {
+        return root.resolve("projects");
+    }
+
+    private Path projectFile(int projectId, long generation) {
+        return projectsDir().resolve(projectId + "-" + generation + PROJECT_SUFFIX);
+    }
+
+    private Path pairsFile(long generation) {
+        return root.resolve(PAIRS_PREFIX + generation + ".bin");
+    }
+
+    private Path manifestFile() {
+        return root.resolve("manifest.bin");
+    }
+
+    /**
+     * The generation of the last commit, the generation of the totals file and the generation of each project's file.
+     */
+    private record Manifest(long generation, long pairsGeneration, TreeMap<Integer, Long> projects) {
+
+        static Manifest read(Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                long generation = in.readLong();
+                long pairsGeneration = in.readLong();
+                int count = in.readInt();
+                TreeMap<Integer, Long> projects = new TreeMap<>();
+                for (int i = 0; i < count; i++) {
+                    projects.put(in.readInt(), in.readLong());
+                }
+                return new Manifest(generation, pairsGeneration, projects);
+            }
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeLong(generation);
+            out.writeLong(pairsGeneration);
+            out.writeInt(projects.size());
+            for (Map.Entry<Integer, Long> project : projects.entrySet()) {
+                out.writeInt(project.getKey());
+                out.writeLong(project.getValue());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.employees.service;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.List;
+
+/**
+ * Parses the supported date formats straight into epoch days.
+ * <p>
+ * The common shapes ({@code yyyy-MM-dd}, {@code MM/dd/yyyy}, {@code dd-MM-yyyy}, {@code dd/MM/yyyy},
+ * {@code MM-dd-yyyy}) are recognised from the separator positions and decoded char by char, without
+ * allocating or throwing. Anything else falls back to the {@link DateTimeFormatter} list, tried in the
+ * same order, so results are identical to parsing every value with the formatters.
+ * <p>
+ * Slash and dash dates with a two-digit first field are ambiguous ({@code 05/10/2021}); by default they
+ * resolve in formatter order (month first for slashes, day first for dashes). With format detection on,
+ * the parser samples the first values of an upload and, once the sample is complete, locks onto the
+ * dominant unambiguous interpretation of each separator, which is then tried first.
+ * Instances are therefore per upload and not thread-safe.
+ */
+class DateParser {
+
+    static final int INVALID = Integer.MIN_VALUE;
+
+    enum Format {
+        ISO("yyyy-MM-dd"),
+        MONTH_SLASH("MM/dd/yyyy"),
+        DAY_DASH("dd-MM-yyyy"),
+        DAY_SLASH("dd/MM/yyyy"),
+        MONTH_DASH("MM-dd-yyyy");
+
+        final DateTimeFormatter formatter;
+
+        Format(String pattern) {
+            this.formatter = DateTimeFormatter.ofPattern(pattern).withResolverStyle(ResolverStyle.SMART);
+        }
+    }
+
+    private static final List<Format> FORMAT_ORDER = List.of(Format.values());
+
+    private static final int DATE_LENGTH = 10;
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+
+    private final int sampleSize;
+    private final int[] formatCounts = new int[Format.values().length];
+    private int sampled;
+    private boolean locked;
+    private boolean slashDayFirst;
+    private boolean dashDayFirst = true;
+
+    /**
+     * @param sampleSize number of values to sample before locking onto the dominant formats, 0 to disable detection
+     */
+    DateParser(int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Plain parser that always resolves ambiguous values in formatter order.
+     */
+    static DateParser legacyOrder() {
+        return new DateParser(0);
+    }
+
+    /**
+     * Parses {@code value} (surrounding whitespace ignored) and returns its epoch day, or {@link #INVALID}.
+     */
+    int parseEpochDay(CharSequence value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        if (end - start == DATE_LENGTH) {
+            int epochDay = parseFixedWidth(value, start);
+            if (epochDay != INVALID) {
+                return epochDay;
+            }
+        }
+        return parseWithFormatters(value.subSequence(start, end).toString());
+    }
+
+    boolean isLocked() {
+        return locked;
+    }
+
+    private int parseFixedWidth(CharSequence value, int start) {
+        char sep4 = value.charAt(start + 4);
+        if (sep4 == '-' && value.charAt(start + 7) == '-') {
+            int year = digits(value, start, 4);
+            int month = digits(value, start + 5, 2);
+            int day = digits(value, start + 8, 2);
+            return observe(Format.ISO, epochDay(year, month, day));
+        }
+
+        char sep2 = value.charAt(start + 2);
+        if (sep2 != value.charAt(start + 5) || (sep2 != '/' && sep2 != '-')) {
+            return INVALID;
+        }
+        int first = digits(value, start, 2);
+        int second = digits(value, start + 3, 2);
+        int year = digits(value, start + 6, 4);
+
+        boolean slash = sep2 == '/';
+        Format monthFirst = slash ? Format.MONTH_SLASH : Format.MONTH_DASH;
+        Format dayFirst = slash ? Format.DAY_SLASH : Format.DAY_DASH;
+        int asMonthFirst = epochDay(year, first, second);
+        int asDayFirst = epochDay(year, second, first);
+
+        if (asMonthFirst == INVALID || asDayFirst == INVALID) {
+            // At most one reading is valid, so the value is unambiguous evidence of its format
+            return asMonthFirst != INVALID ? observe(monthFirst, asMonthFirst) : observe(dayFirst, asDayFirst);
+        }
+        sampleAmbiguous();
+        return (slash ? slashDayFirst : dashDayFirst) ? asDayFirst : asMonthFirst;
+    }
+
+    private int observe(Format format, int epochDay) {
+        if (epochDay != INVALID && !locked && sampleSize > 0) {
+            formatCounts[format.ordinal()]++;
+            countSample();
+        }
+        return epochDay;
+    }
+
+    private void sampleAmbiguous() {
+        if (!locked && sampleSize > 0) {
+            countSample();
+        }
+    }
+
+    private void countSample() {
+        if (++sampled < sampleSize) {
+            return;
+        }
+        locked = true;
+        int daySlash = formatCounts[Format.DAY_SLASH.ordinal()];
+        int monthSlash = formatCounts[Format.MONTH_SLASH.ordinal()];
+        int dayDash = formatCounts[Format.DAY_DASH.ordinal()];
+        int monthDash = formatCounts[Format.MONTH_DASH.ordinal()];
+        // Ties keep the formatter order
+        slashDayFirst = daySlash > monthSlash;
+        dashDayFirst = dayDash >= monthDash;
+    }
+
+    /**
+     * Mirrors {@link ResolverStyle#SMART}: month and day must be in range, a day past the end of
+     * the month is clamped to its last day.
+     */
+    private static int epochDay(int year, int month, int day) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return INVALID;
+        }
+        boolean leap = Year.isLeap(year);
+        day = Math.min(day, Month.of(month).length(leap));
+
+        // Same arithmetic as LocalDate.toEpochDay(), without creating the LocalDate
+        long y = year;
+        long total = 365 * y + (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367L * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total -= leap ? 1 : 2;
+        }
+        return (int) (total - DAYS_0000_TO_1970);
+    }
+
+    private static int digits(CharSequence value, int offset, int count) {
+        int result = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static int parseWithFormatters(String dateStr) {
+        for (Format format : FORMAT_ORDER) {
+            try {
+                return (int) LocalDate.parse(dateStr, format.formatter).toEpochDay();
+            } catch (Exception ignored) {}
+        }
+        return INVALID;
+    }
+}
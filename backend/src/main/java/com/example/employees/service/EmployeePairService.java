@@ -1,167 +1,548 @@
 package com.example.employees.service;
 
 import com.example.employees.model.EmployeePairResult;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import com.example.employees.model.JobPhase;
+import com.example.employees.model.ProjectOverlap;
+import com.example.employees.model.TopPairResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.ResolverStyle;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class EmployeePairService {
 
     private static final Logger log = LoggerFactory.getLogger(EmployeePairService.class);
 
+    // Rows parsed between progress callbacks, minus one
+    private static final int PROGRESS_INTERVAL_MASK = 1023;
+
+    // Invalid rows logged individually per upload, the rest are only counted
+    private static final int LOGGED_SKIPPED_ROWS = 10;
+
+    private final OverlapEngine overlapEngine;
+
+    private final long streamingHeapBudgetBytes;
+
+    private final Path spillDir;
+
+    private final ParallelOverlapRunner parallelRunner;
+
+    // Number of date values sampled per upload before locking onto the dominant format, 0 = legacy order
+    private final int dateDetectionSampleSize;
+
+    // Join overlapping or adjacent rows of the same employee within a project before pairing
+    private final boolean mergeStints;
+
+    // Rows a compressed upload may expand to, 0 = no limit
+    private final long maxDecompressedRows;
+
+    private final ResultCache resultCache;
+
+    private final ShardCoordinator shardCoordinator;
+
+    private final PipelineMetrics metrics;
+
+    public EmployeePairService(@Value("${overlap-engine:sweep-line}") String overlapEngine,
+                               @Value("${streaming.heap-budget-mb:64}") int streamingHeapBudgetMb,
+                               @Value("${streaming.spill-dir:}") String spillDir,
+                               @Value("${parallel.enabled:false}") boolean parallelEnabled,
+                               @Value("${parallel.threads:0}") int parallelThreads,
+                               @Value("${parallel.split-size:4096}") int parallelSplitSize,
+                               @Value("${date-detection.enabled:false}") boolean dateDetectionEnabled,
+                               @Value("${date-detection.sample-rows:1000}") int dateDetectionSampleRows,
+                               @Value("${stint-merge.enabled:true}") boolean mergeStints,
+                               @Value("${input.max-decompressed-rows:5000000}") long maxDecompressedRows,
+                               ResultCache resultCache,
+                               ShardCoordinator shardCoordinator,
+                               MeterRegistry meterRegistry) {
+        this.overlapEngine = OverlapEngine.named(overlapEngine);
+        this.streamingHeapBudgetBytes = streamingHeapBudgetMb * 1024L * 1024L;
+        this.spillDir = Path.of(spillDir.isBlank() ? System.getProperty("java.io.tmpdir") : spillDir);
+        this.parallelRunner = parallelEnabled
+                ? new ParallelOverlapRunner(this.overlapEngine,
+                        parallelThreads > 0 ? parallelThreads : Runtime.getRuntime().availableProcessors(),
+                        parallelSplitSize)
+                : null;
+        // Each row contributes two date values
+        this.dateDetectionSampleSize = dateDetectionEnabled ? Math.max(1, dateDetectionSampleRows) * 2 : 0;
+        this.mergeStints = mergeStints;
+        this.maxDecompressedRows = maxDecompressedRows;
+        this.resultCache = resultCache;
+        this.shardCoordinator = shardCoordinator;
+        this.metrics = new PipelineMetrics(meterRegistry);
+        log.info("Using overlap engine '{}', parallel mode {}, stint merging {}", overlapEngine,
+                parallelRunner != null ? "on with " + parallelRunner.parallelism() + " threads" : "off",
+                mergeStints ? "on" : "off");
+    }
+
+    PipelineMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Whether rows of the same employee and project are merged before pairing; datasets need to know
+     * because they pair new rows with stored ones themselves.
+     */
+    boolean mergesStints() {
+        return mergeStints;
+    }
+
+    /**
+     * Date values sampled per upload before locking onto the dominant format, 0 when detection is off.
+     */
+    int dateDetectionSampleSize() {
+        return dateDetectionSampleSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (parallelRunner != null) {
+            parallelRunner.close();
+        }
+    }
+
+    /**
+     * Processes the upload and, when the result cache is enabled, stores the result under the SHA-256
+     * of the upload, hashed while it is parsed.
+     */
     public List<EmployeePairResult> processCSV(MultipartFile file) throws Exception {
-        log.info("Starting CSV processing...");
-        CSVParser parser = CSVFormat.DEFAULT
-                .withFirstRecordAsHeader()
-                .parse(new InputStreamReader(file.getInputStream()));
+        if (!resultCache.isEnabled()) {
+            return processCSV(file.getInputStream(), ProgressListener.NONE);
+        }
 
-        Map<Integer, List<ProjectEntry>> projectMap = new HashMap<>();
-        Map<PairKey, Long> pairTotalDuration = new HashMap<>();
+        MessageDigest digest = ResultCache.newDigest();
+        List<EmployeePairResult> result;
+        try (InputStream input = new DigestInputStream(file.getInputStream(), digest)) {
+            result = processCSV(input, ProgressListener.NONE);
+            // Hash whatever the parser left unread, e.g. trailing blank lines
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        resultCache.put(file, digest.digest(), result);
+        return result;
+    }
 
-        int validRows = 0;
+    /**
+     * Same as {@link #processCSV(MultipartFile)}, reporting each phase and the rows parsed to {@code progress}.
+     */
+    public List<EmployeePairResult> processCSV(InputStream input, ProgressListener progress) throws Exception {
+        log.info("Starting CSV processing...");
+        progress.phaseStarted(JobPhase.PARSING);
+        long[] uploadBytes = new long[1];
+        Map<Integer, List<ProjectEntry>> projectMap;
+        InputStream counted = new CountingInputStream(input, count -> uploadBytes[0] = count);
+        try (AssignmentRows rows = openRows(counted, maxDecompressedRows)) {
+            projectMap = parseProjects(rows, progress);
+        }
+        metrics.uploadSize(uploadBytes[0]);
 
-        for (CSVRecord record : parser) {
-            int empId = Integer.parseInt(record.get("EmpID"));
-            int projectId = Integer.parseInt(record.get("ProjectID"));
-            LocalDate dateFrom = parseDateFrom(record.get("DateFrom"));
-            LocalDate dateTo = parseDateTo(record.get("DateTo"));
+        progress.phaseStarted(JobPhase.OVERLAPPING);
+        PairTable pairTotalDuration = computePairTotals(projectMap, progress);
 
-            if (dateFrom == null || dateTo == null) {
-                log.warn("Skipping row with invalid dates: {}", record);
-                continue;
+        progress.phaseStarted(JobPhase.AGGREGATING);
+        return toResults(pairTotalDuration);
+    }
+
+    /**
+     * Computes the pair totals of the upload but leaves them in the pair table, so callers can
+     * stream them out without building the result list. Results small enough for the result cache
+     * are built as a list after all and cached, as {@link #processCSV(MultipartFile)} does.
+     */
+    public PairResults processCSVPairs(MultipartFile file) throws Exception {
+        log.info("Starting CSV processing for a streamed response...");
+        metrics.uploadSize(file.getSize());
+        MessageDigest digest = resultCache.isEnabled() ? ResultCache.newDigest() : null;
+        Map<Integer, List<ProjectEntry>> projectMap;
+        try (InputStream input = digest != null ? new DigestInputStream(file.getInputStream(), digest) : file.getInputStream()) {
+            projectMap = parseProjects(input);
+            if (digest != null) {
+                input.transferTo(OutputStream.nullOutputStream());
             }
+        }
+        PairTable pairTotalDuration = computePairTotals(projectMap);
+        metrics.pairsEmitted(pairTotalDuration.size());
+        if (digest != null && resultCache.admits(pairTotalDuration.size())) {
+            List<EmployeePairResult> result = toResults(pairTotalDuration);
+            resultCache.put(file, digest.digest(), result);
+            return PairResults.of(result);
+        }
+        log.info("Pair table holds {} pairs in ~{} bytes", pairTotalDuration.size(), pairTotalDuration.memoryUsageBytes());
+        return PairResults.of(pairTotalDuration);
+    }
+
+    /**
+     * Returns only the {@code k} pairs that worked together longest, best first, each with its per-project breakdown.
+     * With {@code prune} on, employees whose upper-bound total cannot reach the K-th best pair of a
+     * cheap first pass over the most promising employees are dropped before the full overlap pass.
+     */
+    public List<TopPairResult> processCSVTopK(MultipartFile file, int k, boolean prune) throws Exception {
+        log.info("Starting top-{} CSV processing (pruning {})...", k, prune ? "on" : "off");
+        metrics.uploadSize(file.getSize());
+        Map<Integer, List<ProjectEntry>> projectMap = parseProjects(file.getInputStream());
+        // Merged up front so the per-project breakdown sees the same rows as the totals
+        mergeStints(projectMap);
+
+        Map<Integer, List<ProjectEntry>> scanned = prune ? pruneForTopK(projectMap, k) : projectMap;
+        List<TopPairs.Ranked> best = TopPairs.best(computePairTotals(scanned), k);
+
+        long start = System.nanoTime();
+        List<TopPairResult> results = withProjectBreakdown(best, projectMap);
+        metrics.aggregated(start, results.size());
+        return results;
+    }
+
+    /**
+     * Parses the CSV into per-project assignment lists, skipping rows with invalid dates.
+     */
+    Map<Integer, List<ProjectEntry>> parseProjects(Reader reader) throws IOException {
+        return parseProjects(CsvInputFormat.rows(reader), ProgressListener.NONE);
+    }
 
-            projectMap.computeIfAbsent(projectId, k -> new ArrayList<>())
-                    .add(new ProjectEntry(empId, projectId, dateFrom, dateTo));
-            validRows++;
+    /**
+     * Same as {@link #parseProjects(Reader)} for an upload in any {@linkplain InputFormat supported format}.
+     */
+    Map<Integer, List<ProjectEntry>> parseProjects(InputStream input) throws IOException {
+        try (AssignmentRows rows = openRows(input, maxDecompressedRows)) {
+            return parseProjects(rows, ProgressListener.NONE);
         }
+    }
+
+    private Map<Integer, List<ProjectEntry>> parseProjects(AssignmentRows rows, ProgressListener progress) throws IOException {
+        Map<Integer, List<ProjectEntry>> projectMap = new HashMap<>();
+
+        int validRows = readRows(rows, progress, (empId, projectId, dateFrom, dateTo) ->
+                projectMap.computeIfAbsent(projectId, k -> new ArrayList<>())
+                        .add(new ProjectEntry(empId, projectId, dateFrom, dateTo)));
 
         log.info("Parsed {} valid records across {} projects", validRows, projectMap.size());
+        for (List<ProjectEntry> participants : projectMap.values()) {
+            metrics.projectSize(participants.size());
+        }
+        return projectMap;
+    }
 
-        // Calculate total overlaps per pair across projects
-        for (Map.Entry<Integer, List<ProjectEntry>> entry : projectMap.entrySet()) {
-            int projectId = entry.getKey();
-            List<ProjectEntry> participants = entry.getValue();
+    /**
+     * Calculates total overlaps per pair across projects. With stint merging on, the lists of
+     * {@code projectMap} are replaced by their merged versions first. Large inputs are sent to the
+     * workers when {@code distributed.workers} is set.
+     */
+    PairTable computePairTotals(Map<Integer, List<ProjectEntry>> projectMap) throws IOException {
+        return computePairTotals(projectMap, ProgressListener.NONE);
+    }
 
-            log.debug("Processing project {} with participants: {}", projectId,
-                    participants.stream().map(pe -> pe.empId).toList());
+    private PairTable computePairTotals(Map<Integer, List<ProjectEntry>> projectMap, ProgressListener progress) throws IOException {
+        mergeStints(projectMap);
+        if (!shardCoordinator.handles(projectMap)) {
+            return computeLocally(projectMap, progress);
+        }
+        progress.projectsToOverlap(projectMap.size());
+        long start = System.nanoTime();
+        PairTable pairTotalDuration = shardCoordinator.accumulate(projectMap, progress);
+        // Comparisons are counted by the workers
+        metrics.overlapped(start, 0);
+        return pairTotalDuration;
+    }
 
-            for (int i = 0; i < participants.size(); i++) {
-                for (int j = i + 1; j < participants.size(); j++) {
-                    ProjectEntry e1 = participants.get(i);
-                    ProjectEntry e2 = participants.get(j);
+    private PairTable computeLocally(Map<Integer, List<ProjectEntry>> projectMap, ProgressListener progress) {
+        progress.projectsToOverlap(projectMap.size());
+        long start = System.nanoTime();
+        if (parallelRunner != null) {
+            LongAdder comparisons = new LongAdder();
+            PairTable pairTotalDuration = parallelRunner.accumulate(projectMap.values(), comparisons, progress);
+            log.debug("Parallel overlap pass performed {} comparisons", comparisons.sum());
+            metrics.overlapped(start, comparisons.sum());
+            return pairTotalDuration;
+        }
 
-                    log.debug("Comparing employees {} and {} in project {}", e1.empId, e2.empId, projectId);
+        PairTable pairTotalDuration = new PairTable();
+        long comparisons = 0;
+        for (Map.Entry<Integer, List<ProjectEntry>> entry : projectMap.entrySet()) {
+            comparisons += accumulateProject(entry.getKey(), entry.getValue(), pairTotalDuration);
+            progress.projectOverlapped();
+        }
+        metrics.overlapped(start, comparisons);
+        return pairTotalDuration;
+    }
 
-                    LocalDate overlapStart = e1.dateFrom.isAfter(e2.dateFrom) ? e1.dateFrom : e2.dateFrom;
-                    LocalDate overlapEnd = e1.dateTo.isBefore(e2.dateTo) ? e1.dateTo : e2.dateTo;
+    /**
+     * Streaming variant of {@link #processCSV(MultipartFile)} for inputs of any size.
+     * Rows are packed into an {@link AssignmentStore} that spills to {@code streaming.spill-dir}
+     * once {@code streaming.heap-budget-mb} is exceeded; the results are the same as the in-memory path.
+     */
+    public List<EmployeePairResult> processCSVStream(InputStream input) throws Exception {
+        return processCSVStream(input, ComputeGate.NONE);
+    }
+
+    /**
+     * Same as {@link #processCSVStream(InputStream)}, holding a slot of {@code gate} only once the whole input has
+     * been read, while the pairs are computed.
+     *
+     * @throws RejectedExecutionException when no slot freed up in time
+     */
+    public List<EmployeePairResult> processCSVStream(InputStream input, ComputeGate gate) throws Exception {
+        log.info("Starting streaming CSV processing with heap budget {} bytes...", streamingHeapBudgetBytes);
+        long[] uploadBytes = new long[1];
+        try (AssignmentStore store = new AssignmentStore(streamingHeapBudgetBytes, spillDir)) {
+            int validRows;
+            // No decompressed-row limit: like a plain CSV of any size, a compressed export only grows the spill files
+            try (AssignmentRows rows = openRows(new CountingInputStream(input, count -> uploadBytes[0] = count), 0)) {
+                validRows = readRows(rows, ProgressListener.NONE, (empId, projectId, dateFrom, dateTo) ->
+                        store.add(projectId, empId, dateFrom, dateTo));
+            }
+            metrics.uploadSize(uploadBytes[0]);
 
-                    if (!overlapStart.isAfter(overlapEnd)) {
-                        long days = overlapStart.until(overlapEnd).getDays() + 1;
-                        PairKey key = new PairKey(e1.empId, e2.empId);
+            log.info("Parsed {} valid records, spilled {} times", validRows, store.spillCount());
 
-                        pairTotalDuration.put(key, pairTotalDuration.getOrDefault(key, 0L) + days);
-                        log.debug("Pair {} & {} worked together for {} days (project {})",
-                                key.empId1, key.empId2, days, projectId);
-                    } else {
-                        log.debug("No overlap between employees {} and {} in project {}", e1.empId, e2.empId, projectId);
-                    }
-                }
+            if (!gate.enter()) {
+                throw new RejectedExecutionException("No computation slot freed up within " + gate.maxWait().toSeconds() + "s");
+            }
+            try {
+                long start = System.nanoTime();
+                long[] comparisons = new long[1];
+                long[] mergedRows = new long[1];
+                PairTable pairTotalDuration = new PairTable();
+                store.forEachProject((projectId, participants) -> {
+                    metrics.projectSize(participants.size());
+                    List<ProjectEntry> rows = mergeStints ? StintMerger.merge(participants) : participants;
+                    mergedRows[0] += participants.size() - rows.size();
+                    comparisons[0] += accumulateProject(projectId, rows, pairTotalDuration);
+                });
+                metrics.overlapped(start, comparisons[0]);
+                reportMerged(mergedRows[0]);
+
+                return toResults(pairTotalDuration);
+            } finally {
+                gate.exit();
             }
         }
+    }
 
-        // Compose final result: one row per pair with total days worked together
-        List<EmployeePairResult> results = new ArrayList<>();
-        for (Map.Entry<PairKey, Long> entry : pairTotalDuration.entrySet()) {
-            PairKey pair = entry.getKey();
-            long totalDays = entry.getValue();
-            results.add(new EmployeePairResult(pair.empId1, pair.empId2, totalDays));
-            log.info("Pair {} & {} total days worked together: {}", pair.empId1, pair.empId2, totalDays);
+    /**
+     * Parses the upload and returns a writer for its binary snapshot. Parsing happens before this returns,
+     * so an invalid file fails here rather than halfway through writing the snapshot.
+     */
+    public SnapshotWriter exportSnapshot(MultipartFile file) throws Exception {
+        log.info("Exporting CSV as a binary snapshot...");
+        metrics.uploadSize(file.getSize());
+        Map<Integer, List<ProjectEntry>> projectMap = parseProjects(file.getInputStream());
+        return out -> AssignmentSnapshot.write(projectMap, out);
+    }
+
+    /**
+     * Same results as {@link #processCSV(MultipartFile)} for the CSV the snapshot was exported from,
+     * as of the export day. The upload is copied to a temp file in {@code streaming.spill-dir} to be mapped.
+     */
+    public List<EmployeePairResult> processSnapshot(MultipartFile file) throws Exception {
+        Path temp = Files.createTempFile(spillDir, "snapshot-", ".bin");
+        try {
+            file.transferTo(temp);
+            return processSnapshot(temp);
+        } finally {
+            Files.deleteIfExists(temp);
         }
+    }
 
-        return results;
+    List<EmployeePairResult> processSnapshot(Path file) throws IOException {
+        AssignmentSnapshot snapshot = AssignmentSnapshot.map(file);
+        metrics.uploadSize(Files.size(file));
+        log.info("Loaded snapshot of {} records across {} projects", snapshot.rowCount(), snapshot.projectCount());
+
+        Map<Integer, List<ProjectEntry>> projectMap = snapshot.toProjectMap();
+        for (List<ProjectEntry> participants : projectMap.values()) {
+            metrics.projectSize(participants.size());
+        }
+        return toResults(computePairTotals(projectMap));
     }
 
-    private LocalDate parseDateFrom(String dateStr) {
-        if (dateStr == null || dateStr.trim().isEmpty() || dateStr.trim().equalsIgnoreCase("null")) {
-            // Invalid dateFrom, do NOT default to today, treat as invalid
-            return null;
+    // maxRows limits the rows of compressed formats, 0 for none
+    private AssignmentRows openRows(InputStream input, long maxRows) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input);
+        InputFormat format = InputFormat.detect(buffered);
+        log.info("Reading {} upload", format.name());
+        return format.open(buffered, maxRows);
+    }
+
+    /**
+     * Computes the pair totals of one shard sent by a coordinator: a snapshot of some of its projects.
+     * Always computed here, never passed on to workers of this instance. The coordinator has already merged
+     * stints or not by its own {@code stint-merge.enabled}, so the rows are paired as they are. The shard is
+     * copied to a temp file in {@code streaming.spill-dir} to be mapped.
+     */
+    public PairResults processShard(InputStream body) throws IOException {
+        Path temp = Files.createTempFile(spillDir, "shard-", ".bin");
+        try {
+            Files.copy(body, temp, StandardCopyOption.REPLACE_EXISTING);
+            AssignmentSnapshot shard = AssignmentSnapshot.map(temp);
+            log.info("Computing shard of {} records across {} projects", shard.rowCount(), shard.projectCount());
+            return PairResults.of(computeLocally(shard.toProjectMap(), ProgressListener.NONE));
+        } finally {
+            Files.deleteIfExists(temp);
         }
-        return parseDateWithFormats(dateStr);
     }
 
-    private LocalDate parseDateTo(String dateStr) {
-        if (dateStr == null || dateStr.trim().isEmpty() || dateStr.trim().equalsIgnoreCase("null")) {
-            return LocalDate.now();
+    private int readRows(AssignmentRows rows, ProgressListener progress, RowHandler handler) throws IOException {
+        long start = System.nanoTime();
+        DateParser dateParser = new DateParser(dateDetectionSampleSize);
+        int today = (int) LocalDate.now().toEpochDay();
+        int validRows = 0;
+        int skippedRows = 0;
+
+        for (String[] row = rows.next(); row != null; row = rows.next()) {
+            int empId = Integer.parseInt(row[AssignmentRows.EMP_ID]);
+            int projectId = Integer.parseInt(row[AssignmentRows.PROJECT_ID]);
+            int dateFrom = parseDateFrom(row[AssignmentRows.DATE_FROM], dateParser);
+            int dateTo = parseDateTo(row[AssignmentRows.DATE_TO], dateParser, today);
+
+            if (dateFrom == DateParser.INVALID || dateTo == DateParser.INVALID) {
+                if (++skippedRows <= LOGGED_SKIPPED_ROWS) {
+                    log.warn("Skipping row with invalid dates: {}", Arrays.toString(row));
+                } else if (log.isDebugEnabled()) {
+                    log.debug("Skipping row with invalid dates: {}", Arrays.toString(row));
+                }
+                continue;
+            }
+
+            handler.accept(empId, projectId, dateFrom, dateTo);
+            if ((++validRows & PROGRESS_INTERVAL_MASK) == 0) {
+                progress.rowsParsed(validRows);
+            }
+        }
+        progress.rowsParsed(validRows);
+        if (skippedRows > LOGGED_SKIPPED_ROWS) {
+            log.warn("Skipped {} rows with invalid dates in total", skippedRows);
         }
-        return parseDateWithFormats(dateStr);
+        metrics.parsed(start, validRows, skippedRows);
+        return validRows;
     }
 
-    private LocalDate parseDateWithFormats(String dateStr) {
-        List<DateTimeFormatter> formatters = List.of(
-                DateTimeFormatter.ofPattern("yyyy-MM-dd").withResolverStyle(ResolverStyle.SMART),
-                DateTimeFormatter.ofPattern("MM/dd/yyyy").withResolverStyle(ResolverStyle.SMART),
-                DateTimeFormatter.ofPattern("dd-MM-yyyy").withResolverStyle(ResolverStyle.SMART),
-                DateTimeFormatter.ofPattern("dd/MM/yyyy").withResolverStyle(ResolverStyle.SMART),
-                DateTimeFormatter.ofPattern("MM-dd-yyyy").withResolverStyle(ResolverStyle.SMART)
-        );
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                return LocalDate.parse(dateStr.trim(), formatter);
-            } catch (Exception ignored) {}
+    private void mergeStints(Map<Integer, List<ProjectEntry>> projectMap) {
+        if (mergeStints) {
+            reportMerged(StintMerger.mergeAll(projectMap));
+        }
+    }
+
+    private void reportMerged(long mergedRows) {
+        if (mergedRows > 0) {
+            log.info("Merged {} overlapping or adjacent rows of the same employee and project", mergedRows);
+        }
+        metrics.merged(mergedRows);
+    }
+
+    private long accumulateProject(int projectId, List<ProjectEntry> participants, PairTable pairTotalDuration) {
+        long comparisons = overlapEngine.accumulate(participants, pairTotalDuration);
+        if (log.isDebugEnabled()) {
+            log.debug("Project {} with participants {}: {} comparisons", projectId,
+                    participants.stream().map(pe -> pe.empId).toList(), comparisons);
         }
-        return null;
+        return comparisons;
     }
 
-    private static class ProjectEntry {
-        int empId;
-        int projectId;
-        LocalDate dateFrom;
-        LocalDate dateTo;
+    private Map<Integer, List<ProjectEntry>> pruneForTopK(Map<Integer, List<ProjectEntry>> projectMap, int k) throws IOException {
+        Map<Integer, Long> upperBounds = TopPairs.employeeUpperBounds(projectMap);
+        Set<Integer> candidates = TopPairs.candidates(upperBounds, k);
 
-        ProjectEntry(int empId, int projectId, LocalDate dateFrom, LocalDate dateTo) {
-            this.empId = empId;
-            this.projectId = projectId;
-            this.dateFrom = dateFrom;
-            this.dateTo = dateTo;
+        List<TopPairs.Ranked> candidateBest = TopPairs.best(computePairTotals(TopPairs.restrict(projectMap, candidates)), k);
+        if (candidateBest.size() < k) {
+            log.debug("Only {} candidate pairs found, skipping pruning", candidateBest.size());
+            return projectMap;
         }
+
+        // Exact totals of real pairs, so the global K-th best is at least this
+        long threshold = candidateBest.get(k - 1).days();
+        Set<Integer> survivors = new HashSet<>();
+        upperBounds.forEach((empId, bound) -> {
+            if (bound >= threshold) {
+                survivors.add(empId);
+            }
+        });
+        log.info("Top-{} pruning kept {} of {} employees (threshold {} days)",
+                k, survivors.size(), upperBounds.size(), threshold);
+        return TopPairs.restrict(projectMap, survivors);
     }
 
-    private static class PairKey {
-        int empId1;
-        int empId2;
+    private List<TopPairResult> withProjectBreakdown(List<TopPairs.Ranked> best, Map<Integer, List<ProjectEntry>> projectMap) {
+        Set<Integer> employees = new HashSet<>();
+        for (TopPairs.Ranked ranked : best) {
+            employees.add(PairTable.empId1(ranked.key()));
+            employees.add(PairTable.empId2(ranked.key()));
+        }
 
-        PairKey(int id1, int id2) {
-            if (id1 < id2) {
-                this.empId1 = id1;
-                this.empId2 = id2;
-            } else {
-                this.empId1 = id2;
-                this.empId2 = id1;
+        Map<Long, List<ProjectOverlap>> breakdown = new HashMap<>();
+        for (Map.Entry<Integer, List<ProjectEntry>> entry : TopPairs.restrict(projectMap, employees).entrySet()) {
+            PairTable projectTotals = new PairTable();
+            overlapEngine.accumulate(entry.getValue(), projectTotals);
+            for (TopPairs.Ranked ranked : best) {
+                long days = projectTotals.get(PairTable.empId1(ranked.key()), PairTable.empId2(ranked.key()));
+                if (days > 0) {
+                    breakdown.computeIfAbsent(ranked.key(), key -> new ArrayList<>())
+                            .add(new ProjectOverlap(entry.getKey(), days));
+                }
             }
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof PairKey that)) return false;
-            return empId1 == that.empId1 && empId2 == that.empId2;
+        List<TopPairResult> results = new ArrayList<>(best.size());
+        for (TopPairs.Ranked ranked : best) {
+            List<ProjectOverlap> projects = breakdown.getOrDefault(ranked.key(), new ArrayList<>());
+            projects.sort(Comparator.comparingInt(ProjectOverlap::getProjectId));
+            results.add(new TopPairResult(PairTable.empId1(ranked.key()), PairTable.empId2(ranked.key()),
+                    ranked.days(), projects));
+        }
+        return results;
+    }
+
+    List<EmployeePairResult> toResults(PairTable pairTotalDuration) {
+        log.info("Pair table holds {} pairs in ~{} bytes", pairTotalDuration.size(), pairTotalDuration.memoryUsageBytes());
+
+        long start = System.nanoTime();
+        // Compose final result: one row per pair with total days worked together
+        List<EmployeePairResult> results = new ArrayList<>(pairTotalDuration.size());
+        boolean tracePairs = log.isTraceEnabled();
+        pairTotalDuration.forEachOrdered((empId1, empId2, totalDays) -> {
+            results.add(new EmployeePairResult(empId1, empId2, totalDays));
+            if (tracePairs) {
+                log.trace("Pair {} & {} total days worked together: {}", empId1, empId2, totalDays);
+            }
+        });
+
+        metrics.aggregated(start, results.size());
+        return results;
+    }
+
+    private int parseDateFrom(String dateStr, DateParser dateParser) {
+        if (dateStr == null || dateStr.trim().isEmpty() || dateStr.trim().equalsIgnoreCase("null")) {
+            // Invalid dateFrom, do NOT default to today, treat as invalid
+            return DateParser.INVALID;
         }
+        return dateParser.parseEpochDay(dateStr);
+    }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(empId1, empId2);
+    private int parseDateTo(String dateStr, DateParser dateParser, int today) {
+        if (dateStr == null || dateStr.trim().isEmpty() || dateStr.trim().equalsIgnoreCase("null")) {
+            return today;
         }
+        return dateParser.parseEpochDay(dateStr);
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void accept(int empId, int projectId, int epochDayFrom, int epochDayTo);
     }
 }
@@ -0,0 +1,48 @@
+package com.example.employees.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Gzip-compressed CSV, decompressed while it is parsed.
+ */
+class GzipCsvInputFormat implements InputFormat {
+
+    private static final int INFLATE_BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public String name() {
+        return "gzip";
+    }
+
+    @Override
+    public boolean matches(byte[] head, int length) {
+        return length >= 2 && (head[0] & 0xFF) == 0x1F && (head[1] & 0xFF) == 0x8B;
+    }
+
+    @Override
+    public AssignmentRows open(InputStream input, long maxRows) throws IOException {
+        GZIPInputStream gzip = new GZIPInputStream(InputFormat.unclosable(input), INFLATE_BUFFER_SIZE);
+        AssignmentRows rows = CsvInputFormat.rows(new InputStreamReader(gzip));
+
+        return new AssignmentRows() {
+            private long count;
+
+            @Override
+            public String[] next() throws IOException {
+                String[] values = rows.next();
+                if (values != null && maxRows > 0 && ++count > maxRows) {
+                    throw InputFormat.rowBudgetExceeded(maxRows);
+                }
+                return values;
+            }
+
+            @Override
+            public void close() throws IOException {
+                gzip.close();
+            }
+        };
+    }
+}
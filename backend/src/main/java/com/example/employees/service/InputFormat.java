@@ -0,0 +1,74 @@
+package com.example.employees.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A kind of upload the pipeline can read assignments from, recognized by its first bytes.
+ * <p>
+ * Formats read the upload as a stream and never copy it, decompressed or not. Compressed formats stop
+ * after a row budget, since the size limit of an upload only bounds its compressed bytes.
+ */
+interface InputFormat {
+
+    InputFormat CSV = new CsvInputFormat();
+    InputFormat GZIP_CSV = new GzipCsvInputFormat();
+    InputFormat XLSX = new XlsxInputFormat();
+
+    // Bytes looked at by matches(), enough for every signature
+    int HEAD_BYTES = 4;
+
+    String name();
+
+    /**
+     * Whether {@code head}, the first {@code length} bytes of an upload, carry this format's signature.
+     */
+    boolean matches(byte[] head, int length);
+
+    /**
+     * Reads the rows of {@code input}. Closing the rows releases what the format holds but leaves
+     * {@code input} open.
+     *
+     * @param maxRows rows a compressed format may produce before giving up, 0 for no limit
+     */
+    AssignmentRows open(InputStream input, long maxRows) throws IOException;
+
+    /**
+     * Detects the format of {@code input} from its first bytes, leaving the stream where it was.
+     * Anything without a known signature is read as CSV.
+     */
+    static InputFormat detect(InputStream input) throws IOException {
+        if (!input.markSupported()) {
+            throw new IllegalArgumentException("Format detection needs a stream supporting mark/reset");
+        }
+        input.mark(HEAD_BYTES);
+        byte[] head = input.readNBytes(HEAD_BYTES);
+        input.reset();
+
+        // zstd frame magic 28 B5 2F FD: there is no zstd decoder in the JDK
+        if (head.length == HEAD_BYTES && (head[0] & 0xFF) == 0x28 && (head[1] & 0xFF) == 0xB5
+                && (head[2] & 0xFF) == 0x2F && (head[3] & 0xFF) == 0xFD) {
+            throw new IllegalArgumentException("zstd-compressed uploads are not supported, use gzip");
+        }
+        for (InputFormat format : new InputFormat[]{GZIP_CSV, XLSX}) {
+            if (format.matches(head, head.length)) {
+                return format;
+            }
+        }
+        return CSV;
+    }
+
+    static IllegalArgumentException rowBudgetExceeded(long maxRows) {
+        return new IllegalArgumentException("Upload expands to more than " + maxRows + " rows");
+    }
+
+    // For decoders whose close() would otherwise close the upload stream
+    static InputStream unclosable(InputStream input) {
+        return new FilterInputStream(input) {
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
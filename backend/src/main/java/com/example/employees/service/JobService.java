@@ -0,0 +1,165 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.JobStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs CSV analyses asynchronously on a bounded executor and keeps finished results for a limited time.
+ */
+@Service
+public class JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+
+    private final EmployeePairService employeePairService;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ScheduledExecutorService cleaner;
+
+    private final Duration resultTtl;
+
+    // One permit per job a worker runs or the queue holds, taken before the upload is copied
+    private final Semaphore slots;
+
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+
+    public JobService(EmployeePairService employeePairService,
+                      @Value("${jobs.threads:2}") int threads,
+                      @Value("${jobs.queue-capacity:10}") int queueCapacity,
+                      @Value("${jobs.result-ttl-minutes:30}") long resultTtlMinutes) {
+        this.employeePairService = employeePairService;
+        this.resultTtl = Duration.ofMinutes(resultTtlMinutes);
+
+        this.slots = new Semaphore(threads + Math.max(0, queueCapacity));
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+                runnable -> new Thread(runnable, "analysis-job-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analysis-job-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMinutes = Math.max(1, resultTtlMinutes / 2);
+        cleaner.scheduleAtFixedRate(this::evictExpired, sweepMinutes, sweepMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Reserves a slot, copies the upload to a temp file (the multipart data does not outlive the request) and queues
+     * the analysis.
+     *
+     * @throws RejectedExecutionException when every worker is busy and the queue is full; the upload is not copied
+     */
+    public JobStatus submit(MultipartFile file) throws IOException {
+        if (!slots.tryAcquire()) {
+            throw new RejectedExecutionException("Job queue is full");
+        }
+        Path upload = null;
+        AnalysisJob job = null;
+        try {
+            upload = Files.createTempFile("analysis-job-", ".csv");
+            file.transferTo(upload);
+            job = new AnalysisJob(UUID.randomUUID().toString(), Files.size(upload));
+            jobs.put(job.id(), job);
+            AnalysisJob queued = job;
+            Path queuedUpload = upload;
+            executor.execute(() -> run(queued, queuedUpload));
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            if (job != null) {
+                jobs.remove(job.id());
+            }
+            if (upload != null) {
+                Files.deleteIfExists(upload);
+            }
+            throw e;
+        }
+        log.info("Queued job {} for '{}' ({} bytes)", job.id(), file.getOriginalFilename(), file.getSize());
+        return job.status();
+    }
+
+    public Optional<JobStatus> status(String id) {
+        return find(id).map(AnalysisJob::status);
+    }
+
+    /**
+     * Returns the job's result; empty for unknown or expired jobs and until the job has finished successfully.
+     */
+    public Optional<List<EmployeePairResult>> result(String id) {
+        return find(id).map(AnalysisJob::result);
+    }
+
+    private Optional<AnalysisJob> find(String id) {
+        AnalysisJob job = jobs.get(id);
+        if (job != null && isExpired(job, Instant.now())) {
+            jobs.remove(id);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(job);
+    }
+
+    private void run(AnalysisJob job, Path upload) {
+        try (InputStream input = new CountingInputStream(Files.newInputStream(upload), job::bytesRead)) {
+            List<EmployeePairResult> result = employeePairService.processCSV(input, job);
+            job.completed(result);
+            log.info("Job {} finished with {} employee pairs", job.id(), result.size());
+        } catch (Exception e) {
+            log.error("Job {} failed: {}", job.id(), e.getMessage(), e);
+            job.failed(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                log.warn("Could not delete job upload {}", upload, e);
+            }
+            slots.release();
+        }
+    }
+
+    void evictExpired() {
+        Instant now = Instant.now();
+        jobs.values().removeIf(job -> isExpired(job, now));
+    }
+
+    private boolean isExpired(AnalysisJob job, Instant now) {
+        Instant finishedAt = job.finishedAt();
+        return finishedAt != null && finishedAt.plus(resultTtl).isBefore(now);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.employees.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tokenizes the fixed {@code EmpID,ProjectID,DateFrom,DateTo} schema straight from a memory-mapped file.
+ * <p>
+ * The file is cut into chunks that end on a newline and each chunk is mapped and parsed on its own, so
+ * chunks can be tokenized in parallel. Only the plain subset of CSV is handled: ASCII, no quotes, {@code \n}
+ * or {@code \r\n} line ends and exactly four fields per line. Any other input, including values that
+ * {@link Integer#parseInt} would reject, makes a chunk report that it needs the general Commons CSV parser,
+ * which then reproduces the exact behaviour, including its errors.
+ */
+class MappedCsvTokenizer {
+
+    static final byte[] HEADER = "EmpID,ProjectID,DateFrom,DateTo".getBytes(StandardCharsets.US_ASCII);
+
+    // Invalid rows kept as text per chunk for logging
+    private static final int SKIPPED_SAMPLES = 10;
+    private static final int BOUNDARY_SCAN_BYTES = 8192;
+
+    private final FileChannel channel;
+    private final int today;
+
+    MappedCsvTokenizer(FileChannel channel, int today) {
+        this.channel = channel;
+        this.today = today;
+    }
+
+    /**
+     * Returns the offset of the first data row, or -1 when the file does not start with the exact header line.
+     */
+    long dataStart() throws IOException {
+        long size = channel.size();
+        ByteBuffer head = ByteBuffer.allocate((int) Math.min(size, HEADER.length + 2));
+        channel.read(head, 0);
+        head.flip();
+        if (head.remaining() < HEADER.length) {
+            return -1;
+        }
+        for (byte b : HEADER) {
+            if (head.get() != b) {
+                return -1;
+            }
+        }
+        if (!head.hasRemaining()) {
+            return HEADER.length;
+        }
+        byte next = head.get();
+        if (next == '\n') {
+            return HEADER.length + 1;
+        }
+        if (next == '\r' && head.hasRemaining() && head.get() == '\n') {
+            return HEADER.length + 2;
+        }
+        return -1;
+    }
+
+    /**
+     * Splits {@code [start, size)} into ranges of roughly {@code chunkBytes}, each ending right after a newline
+     * (or at the end of the file).
+     */
+    List<long[]> split(long start, long chunkBytes) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_BYTES);
+        long from = start;
+        while (from < size) {
+            long to = Math.min(size, from + chunkBytes);
+            while (to < size && !endsLine(to)) {
+                // Move the boundary past the next newline
+                scan.clear();
+                int read = channel.read(scan, to);
+                int newline = -1;
+                for (int i = 0; i < read; i++) {
+                    if (scan.get(i) == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                to = newline >= 0 ? to + newline + 1 : Math.min(size, to + Math.max(read, 1));
+            }
+            chunks.add(new long[]{from, to});
+            from = to;
+        }
+        return chunks;
+    }
+
+    private boolean endsLine(long offset) throws IOException {
+        ByteBuffer previous = ByteBuffer.allocate(1);
+        channel.read(previous, offset - 1);
+        return previous.get(0) == '\n';
+    }
+
+    /**
+     * Parses one chunk, or returns {@code null} when it needs the general parser.
+     *
+     * @param dateParser parser for this chunk; with format detection on, one parser must see the chunks in order
+     * @param abort      set by any chunk that gives up, so the others can stop early
+     */
+    Chunk tokenize(long from, long to, DateParser dateParser, AtomicBoolean abort) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        int length = buffer.limit();
+        ByteSlice field = new ByteSlice(buffer);
+        Chunk chunk = new Chunk();
+        int[] commas = new int[3];
+
+        int lineStart = 0;
+        while (lineStart < length) {
+            if ((chunk.validRows & 1023) == 0 && abort.get()) {
+                return null;
+            }
+            int lineEnd = lineStart;
+            int fields = 0;
+            while (lineEnd < length) {
+                byte b = buffer.get(lineEnd);
+                if (b == '\n') {
+                    break;
+                }
+                if (b == ',') {
+                    if (fields == 3) {
+                        return giveUp(abort);
+                    }
+                    commas[fields++] = lineEnd;
+                } else if (b == '"' || b < 0) {
+                    return giveUp(abort);
+                } else if (b == '\r' && lineEnd + 1 < length && buffer.get(lineEnd + 1) != '\n') {
+                    // A bare carriage return is a line break for Commons CSV
+                    return giveUp(abort);
+                }
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+
+            if (lineEnd == lineStart) {
+                // Empty lines are ignored
+                lineStart = next;
+                continue;
+            }
+            if (fields != 3) {
+                return giveUp(abort);
+            }
+
+            long empId = parseInt(buffer, lineStart, commas[0]);
+            long projectId = parseInt(buffer, commas[0] + 1, commas[1]);
+            if (empId == Long.MIN_VALUE || projectId == Long.MIN_VALUE) {
+                return giveUp(abort);
+            }
+            int dateFrom = parseDate(field.of(commas[1] + 1, commas[2]), dateParser, DateParser.INVALID);
+            int dateTo = parseDate(field.of(commas[2] + 1, lineEnd), dateParser, today);
+
+            if (dateFrom == DateParser.INVALID || dateTo == DateParser.INVALID) {
+                if (chunk.skippedRows++ < SKIPPED_SAMPLES) {
+                    chunk.skippedSamples.add(field.of(lineStart, lineEnd).toString());
+                }
+            } else {
+                chunk.add((int) empId, (int) projectId, dateFrom, dateTo);
+            }
+            lineStart = next;
+        }
+        return chunk;
+    }
+
+    private static Chunk giveUp(AtomicBoolean abort) {
+        abort.set(true);
+        return null;
+    }
+
+    /**
+     * Same rules as {@link Integer#parseInt(String)} for ASCII input, {@link Long#MIN_VALUE} where it would throw.
+     */
+    private static long parseInt(ByteBuffer buffer, int from, int to) {
+        int index = from;
+        boolean negative = false;
+        if (index < to && (buffer.get(index) == '-' || buffer.get(index) == '+')) {
+            negative = buffer.get(index) == '-';
+            index++;
+        }
+        if (index == to || to - index > 10) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (; index < to; index++) {
+            int digit = buffer.get(index) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+
+    // Blank and "null" (any case, surrounding whitespace ignored) map to 'missing', as in the Commons CSV path
+    private static int parseDate(ByteSlice value, DateParser dateParser, int missing) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end || (end - start == 4
+                && (value.charAt(start) | 0x20) == 'n' && (value.charAt(start + 1) | 0x20) == 'u'
+                && (value.charAt(start + 2) | 0x20) == 'l' && (value.charAt(start + 3) | 0x20) == 'l')) {
+            return missing;
+        }
+        return dateParser.parseEpochDay(value);
+    }
+
+    /**
+     * Rows of one chunk, grouped by project in file order.
+     */
+    static class Chunk {
+        final Map<Integer, List<ProjectEntry>> projects = new HashMap<>();
+        final List<String> skippedSamples = new ArrayList<>();
+        int validRows;
+        int skippedRows;
+
+        private void add(int empId, int projectId, int dateFrom, int dateTo) {
+            projects.computeIfAbsent(projectId, k -> new ArrayList<>())
+                    .add(new ProjectEntry(empId, projectId, dateFrom, dateTo));
+            validRows++;
+        }
+    }
+
+    /**
+     * Reusable ASCII view of a byte range, so date fields are parsed without creating strings.
+     */
+    private static final class ByteSlice implements CharSequence {
+        private final ByteBuffer buffer;
+        private int start;
+        private int end;
+
+        ByteSlice(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        ByteSlice of(int start, int end) {
+            this.start = start;
+            this.end = end;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            buffer.get(start + from, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+}
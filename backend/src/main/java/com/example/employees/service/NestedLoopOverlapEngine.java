@@ -0,0 +1,34 @@
+package com.example.employees.service;
+
+import java.util.List;
+
+/**
+ * Reference implementation: compares every participant with every other one.
+ * Quadratic in project size, kept as the baseline the faster engines are verified against.
+ * An entry owns its pairs with every entry that follows it in the list.
+ */
+class NestedLoopOverlapEngine implements OverlapEngine {
+
+    @Override
+    public List<ProjectEntry> prepare(List<ProjectEntry> participants) {
+        return participants;
+    }
+
+    @Override
+    public long accumulateRange(List<ProjectEntry> participants, int from, int to, PairTable pairTotalDuration) {
+        long comparisons = 0;
+        for (int i = from; i < to; i++) {
+            for (int j = i + 1; j < participants.size(); j++) {
+                ProjectEntry e1 = participants.get(i);
+                ProjectEntry e2 = participants.get(j);
+                comparisons++;
+
+                long days = e1.overlapDays(e2);
+                if (days > 0) {
+                    pairTotalDuration.add(e1.empId, e2.empId, days);
+                }
+            }
+        }
+        return comparisons;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.employees.service;
+
+import java.util.List;
+
+/**
+ * Strategy for finding overlapping assignments inside a single project and
+ * adding the shared days to the running per-pair totals.
+ * <p>
+ * Work can be split into index ranges of the {@linkplain #prepare prepared} list:
+ * processing every range of a partition of {@code [0, size)} visits each pair exactly once.
+ */
+interface OverlapEngine {
+
+    /**
+     * Returns the project's entries in the order {@link #accumulateRange} expects.
+     */
+    List<ProjectEntry> prepare(List<ProjectEntry> participants);
+
+    /**
+     * Adds the overlaps of all pairs "owned" by entries {@code from} (inclusive) to {@code to} (exclusive)
+     * of a {@linkplain #prepare prepared} list to {@code pairTotalDuration}.
+     *
+     * @return number of entry comparisons performed
+     */
+    long accumulateRange(List<ProjectEntry> prepared, int from, int to, PairTable pairTotalDuration);
+
+    /**
+     * Adds the overlap of every intersecting pair of {@code participants} to {@code pairTotalDuration}.
+     *
+     * @return number of entry comparisons performed
+     */
+    default long accumulate(List<ProjectEntry> participants, PairTable pairTotalDuration) {
+        List<ProjectEntry> prepared = prepare(participants);
+        return accumulateRange(prepared, 0, prepared.size(), pairTotalDuration);
+    }
+
+    static OverlapEngine named(String name) {
+        return switch (name.trim().toLowerCase()) {
+            case "nested-loop" -> new NestedLoopOverlapEngine();
+            case "sweep-line" -> new SweepLineOverlapEngine();
+            default -> throw new IllegalArgumentException("Unknown overlap engine: " + name);
+        };
+    }
+}
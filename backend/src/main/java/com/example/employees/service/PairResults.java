@@ -0,0 +1,66 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Finished pair totals that can be written out one pair at a time, ordered by
+ * {@code empId1} then {@code empId2}, without materializing a result list.
+ */
+public abstract class PairResults {
+
+    public abstract int size();
+
+    public abstract void forEachOrdered(PairSink sink) throws IOException;
+
+    static PairResults of(PairTable table) {
+        return new PairResults() {
+            @Override
+            public int size() {
+                return table.size();
+            }
+
+            @Override
+            public void forEachOrdered(PairSink sink) throws IOException {
+                try {
+                    table.forEachOrdered((empId1, empId2, days) -> {
+                        try {
+                            sink.accept(empId1, empId2, days);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+    }
+
+    /**
+     * Wraps an already ordered result list, e.g. a cached one.
+     */
+    public static PairResults of(List<EmployeePairResult> results) {
+        return new PairResults() {
+            @Override
+            public int size() {
+                return results.size();
+            }
+
+            @Override
+            public void forEachOrdered(PairSink sink) throws IOException {
+                for (EmployeePairResult result : results) {
+                    sink.accept(result.empId1, result.empId2, result.daysWorked);
+                }
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface PairSink {
+        void accept(int empId1, int empId2, long days) throws IOException;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.employees.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from an unordered employee pair to the total days worked together.
+ * <p>
+ * The pair is packed into a single {@code long} ({@code empId1 << 32 | empId2}, smaller id first)
+ * and values are primitive {@code long}s, so updates neither box nor allocate a key object.
+ * Collisions are resolved with linear probing; the table doubles once it is more than half full.
+ */
+class PairTable {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final long EMPTY = 0L;
+    private static final long ARRAY_HEADER_BYTES = 16;
+    private static final long OBJECT_BYTES = 48;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    // Key 0 (the pair 0 & 0) doubles as the empty-slot marker, so it is kept aside
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    PairTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    PairTable(int expectedPairs) {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expectedPairs * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    static long key(int id1, int id2) {
+        return id1 < id2
+                ? ((long) id1 << 32) | (id2 & 0xFFFFFFFFL)
+                : ((long) id2 << 32) | (id1 & 0xFFFFFFFFL);
+    }
+
+    static int empId1(long key) {
+        return (int) (key >>> 32);
+    }
+
+    static int empId2(long key) {
+        return (int) key;
+    }
+
+    void add(int id1, int id2, long days) {
+        addKey(key(id1, id2), days);
+    }
+
+    void addKey(long key, long days) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue += days;
+            return;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] += days;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = days;
+        if (++size > (mask + 1) >>> 1) {
+            allocateAndRehash((mask + 1) << 1);
+        }
+    }
+
+    /**
+     * Returns the total for the pair, or 0 when the pair is not present.
+     */
+    long get(int id1, int id2) {
+        long key = key(id1, id2);
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : 0;
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void mergeFrom(PairTable other) {
+        if (other.hasZeroKey) {
+            addKey(EMPTY, other.zeroValue);
+        }
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.keys[slot] != EMPTY) {
+                addKey(other.keys[slot], other.values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Visits every pair in table order, which is unspecified but cheap.
+     */
+    void forEach(PairConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, 0, zeroValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            long key = keys[slot];
+            if (key != EMPTY) {
+                consumer.accept(empId1(key), empId2(key), values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Visits every pair ordered by {@code empId1}, then {@code empId2}.
+     */
+    void forEachOrdered(PairConsumer consumer) {
+        long[] sorted = new long[size];
+        int count = 0;
+        if (hasZeroKey) {
+            sorted[count++] = signedOrder(EMPTY);
+        }
+        for (long key : keys) {
+            if (key != EMPTY) {
+                sorted[count++] = signedOrder(key);
+            }
+        }
+        Arrays.sort(sorted);
+        for (long orderKey : sorted) {
+            long key = signedOrder(orderKey);
+            consumer.accept(empId1(key), empId2(key), get(empId1(key), empId2(key)));
+        }
+    }
+
+    /**
+     * Approximate heap footprint of the table, including its backing arrays.
+     */
+    long memoryUsageBytes() {
+        return OBJECT_BYTES + 2 * (ARRAY_HEADER_BYTES + (long) keys.length * Long.BYTES);
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private void allocateAndRehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // Flipping the sign bit of the low half makes plain long comparison order by (empId1, empId2) as signed ints
+    static long signedOrder(long key) {
+        return key ^ 0x80000000L;
+    }
+
+    @FunctionalInterface
+    interface PairConsumer {
+        void accept(int empId1, int empId2, long days);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.employees.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the overlap engine over many projects on a dedicated {@link ForkJoinPool}.
+ * <p>
+ * Projects are split recursively across workers and projects larger than
+ * {@code splitSize} entries are cut into index sub-ranges of the prepared list.
+ * Every worker thread accumulates into its own pair table, so there is no
+ * contention on a shared map; the tables are merged once all tasks finish.
+ */
+class ParallelOverlapRunner implements AutoCloseable {
+
+    private final OverlapEngine overlapEngine;
+    private final ForkJoinPool pool;
+    private final int splitSize;
+
+    ParallelOverlapRunner(OverlapEngine overlapEngine, int threads, int splitSize) {
+        this.overlapEngine = overlapEngine;
+        this.pool = new ForkJoinPool(threads);
+        this.splitSize = Math.max(1, splitSize);
+    }
+
+    int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Computes the per-pair totals of all {@code projects}.
+     *
+     * @param comparisons incremented with the number of entry comparisons performed
+     * @param progress    notified from the worker threads as each project completes
+     */
+    PairTable accumulate(Collection<List<ProjectEntry>> projects, LongAdder comparisons, ProgressListener progress) {
+        List<List<ProjectEntry>> projectList = new ArrayList<>(projects);
+        Map<Thread, PairTable> workerTables = new ConcurrentHashMap<>();
+
+        pool.invoke(new ProjectsTask(projectList, 0, projectList.size(), workerTables, comparisons, progress));
+
+        Iterator<PairTable> tables = workerTables.values().iterator();
+        if (!tables.hasNext()) {
+            return new PairTable();
+        }
+        PairTable merged = tables.next();
+        while (tables.hasNext()) {
+            merged.mergeFrom(tables.next());
+        }
+        return merged;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private PairTable workerTable(Map<Thread, PairTable> workerTables) {
+        return workerTables.computeIfAbsent(Thread.currentThread(), t -> new PairTable());
+    }
+
+    private class ProjectsTask extends RecursiveAction {
+        private final List<List<ProjectEntry>> projects;
+        private final int from;
+        private final int to;
+        private final Map<Thread, PairTable> workerTables;
+        private final LongAdder comparisons;
+        private final ProgressListener progress;
+
+        ProjectsTask(List<List<ProjectEntry>> projects, int from, int to,
+                     Map<Thread, PairTable> workerTables, LongAdder comparisons, ProgressListener progress) {
+            this.projects = projects;
+            this.from = from;
+            this.to = to;
+            this.workerTables = workerTables;
+            this.comparisons = comparisons;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ProjectsTask(projects, from, mid, workerTables, comparisons, progress),
+                        new ProjectsTask(projects, mid, to, workerTables, comparisons, progress));
+                return;
+            }
+            if (from == to) {
+                return;
+            }
+
+            List<ProjectEntry> prepared = overlapEngine.prepare(projects.get(from));
+            if (prepared.size() <= splitSize) {
+                comparisons.add(overlapEngine.accumulateRange(prepared, 0, prepared.size(), workerTable(workerTables)));
+                progress.projectOverlapped();
+                return;
+            }
+
+            List<RangeTask> ranges = new ArrayList<>();
+            for (int start = 0; start < prepared.size(); start += splitSize) {
+                ranges.add(new RangeTask(prepared, start, Math.min(prepared.size(), start + splitSize),
+                        workerTables, comparisons));
+            }
+            invokeAll(ranges);
+            progress.projectOverlapped();
+        }
+    }
+
+    private class RangeTask extends RecursiveAction {
+        private final List<ProjectEntry> prepared;
+        private final int from;
+        private final int to;
+        private final Map<Thread, PairTable> workerTables;
+        private final LongAdder comparisons;
+
+        RangeTask(List<ProjectEntry> prepared, int from, int to,
+                  Map<Thread, PairTable> workerTables, LongAdder comparisons) {
+            this.prepared = prepared;
+            this.from = from;
+            this.to = to;
+            this.workerTables = workerTables;
+            this.comparisons = comparisons;
+        }
+
+        @Override
+        protected void compute() {
+            comparisons.add(overlapEngine.accumulateRange(prepared, from, to, workerTable(workerTables)));
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Analyzes CSV exports that already sit on the server's disk, below a configured directory.
+ * <p>
+ * Files in the plain four-column layout are memory-mapped and tokenized in chunks on a dedicated thread
+ * pool by {@link MappedCsvTokenizer}; anything else goes through the same Commons CSV parser as uploads.
+ * Either way the result is the one {@code processCSV} gives for the same bytes.
+ */
+@Service
+public class PathAnalysisService {
+
+    private static final Logger log = LoggerFactory.getLogger(PathAnalysisService.class);
+
+    // Invalid rows logged individually per file, the rest are only counted
+    private static final int LOGGED_SKIPPED_ROWS = 10;
+
+    private final EmployeePairService employeePairService;
+
+    private final Path allowedDir;
+
+    private final ExecutorService executor;
+
+    private final long chunkBytes;
+
+    @Autowired
+    public PathAnalysisService(EmployeePairService employeePairService,
+                               @Value("${analyze-path.allowed-dir:}") String allowedDir,
+                               @Value("${analyze-path.threads:0}") int threads,
+                               @Value("${analyze-path.chunk-mb:16}") int chunkMb) {
+        this(employeePairService, allowedDir, threads, chunkMb * 1024L * 1024L);
+    }
+
+    PathAnalysisService(EmployeePairService employeePairService, String allowedDir, int threads, long chunkBytes) {
+        this.employeePairService = employeePairService;
+        this.allowedDir = allowedDir.isBlank() ? null : Path.of(allowedDir);
+        this.chunkBytes = Math.max(1, chunkBytes);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "analyze-path-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Resolves {@code path} against the allowed directory, following symlinks. A path outside the directory
+     * fails like a missing file, before anything outside is looked up, so callers cannot probe which files exist.
+     *
+     * @throws AccessDeniedException when no directory is configured
+     * @throws NoSuchFileException   when the file does not exist, is not a regular file or lies outside the directory
+     */
+    public Path resolve(String path) throws IOException {
+        if (allowedDir == null) {
+            throw new AccessDeniedException(path, null, "analyze-path.allowed-dir is not configured");
+        }
+        Path root = allowedDir.toRealPath();
+        Path file = root.resolve(path).normalize();
+        if (!file.startsWith(root)) {
+            throw new NoSuchFileException(path, null, "outside of the allowed directory");
+        }
+        // Symlinks below the directory may still lead out of it
+        file = file.toRealPath();
+        if (!file.startsWith(root)) {
+            throw new NoSuchFileException(path, null, "outside of the allowed directory");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new NoSuchFileException(path, null, "not a regular file");
+        }
+        return file;
+    }
+
+    public List<EmployeePairResult> analyze(String path) throws Exception {
+        Path file = resolve(path);
+        log.info("Starting analysis of {} ({} bytes)...", file, Files.size(file));
+        Map<Integer, List<ProjectEntry>> projectMap = readProjects(file);
+        return employeePairService.toResults(employeePairService.computePairTotals(projectMap));
+    }
+
+    Map<Integer, List<ProjectEntry>> readProjects(Path file) throws Exception {
+        PipelineMetrics metrics = employeePairService.metrics();
+        metrics.uploadSize(Files.size(file));
+
+        long start = System.nanoTime();
+        List<MappedCsvTokenizer.Chunk> chunks = tokenize(file);
+        if (chunks == null) {
+            log.info("{} is not in the plain four-column layout, falling back to the general CSV parser", file);
+            // Same decoding as uploads, which replaces malformed input instead of failing
+            try (Reader reader = new InputStreamReader(Files.newInputStream(file))) {
+                return employeePairService.parseProjects(reader);
+            }
+        }
+
+        Map<Integer, List<ProjectEntry>> projectMap = new HashMap<>();
+        int validRows = 0;
+        int skippedRows = 0;
+        int loggedSkips = 0;
+        for (MappedCsvTokenizer.Chunk chunk : chunks) {
+            chunk.projects.forEach((projectId, entries) ->
+                    projectMap.computeIfAbsent(projectId, k -> new ArrayList<>()).addAll(entries));
+            validRows += chunk.validRows;
+            skippedRows += chunk.skippedRows;
+            for (String sample : chunk.skippedSamples) {
+                if (loggedSkips++ < LOGGED_SKIPPED_ROWS) {
+                    log.warn("Skipping row with invalid dates: {}", sample);
+                }
+            }
+        }
+        if (skippedRows > LOGGED_SKIPPED_ROWS) {
+            log.warn("Skipped {} rows with invalid dates in total", skippedRows);
+        }
+        metrics.parsed(start, validRows, skippedRows);
+        for (List<ProjectEntry> participants : projectMap.values()) {
+            metrics.projectSize(participants.size());
+        }
+        log.info("Parsed {} valid records across {} projects in {} mapped chunks", validRows, projectMap.size(), chunks.size());
+        return projectMap;
+    }
+
+    /**
+     * Tokenizes the mapped file chunk by chunk, or returns {@code null} when it needs the general parser.
+     */
+    private List<MappedCsvTokenizer.Chunk> tokenize(Path file) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedCsvTokenizer tokenizer = new MappedCsvTokenizer(channel, (int) LocalDate.now().toEpochDay());
+            long dataStart = tokenizer.dataStart();
+            if (dataStart < 0) {
+                return null;
+            }
+            List<long[]> ranges = tokenizer.split(dataStart, chunkBytes);
+            AtomicBoolean abort = new AtomicBoolean();
+
+            int sampleSize = employeePairService.dateDetectionSampleSize();
+            List<MappedCsvTokenizer.Chunk> chunks = new ArrayList<>(ranges.size());
+            if (sampleSize > 0) {
+                // Format detection depends on the order values are seen in, so chunks share one parser and run in order
+                DateParser dateParser = new DateParser(sampleSize);
+                for (long[] range : ranges) {
+                    MappedCsvTokenizer.Chunk chunk = tokenizer.tokenize(range[0], range[1], dateParser, abort);
+                    if (chunk == null) {
+                        return null;
+                    }
+                    chunks.add(chunk);
+                }
+                return chunks;
+            }
+
+            List<Callable<MappedCsvTokenizer.Chunk>> tasks = new ArrayList<>(ranges.size());
+            for (long[] range : ranges) {
+                tasks.add(() -> tokenizer.tokenize(range[0], range[1], DateParser.legacyOrder(), abort));
+            }
+            for (Future<MappedCsvTokenizer.Chunk> future : executor.invokeAll(tasks)) {
+                MappedCsvTokenizer.Chunk chunk;
+                try {
+                    chunk = future.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+                if (chunk == null) {
+                    return null;
+                }
+                chunks.add(chunk);
+            }
+            return chunks;
+        }
+    }
+}
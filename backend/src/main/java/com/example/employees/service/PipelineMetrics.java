@@ -0,0 +1,97 @@
+package com.example.employees.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the upload pipeline. Callers add per-upload totals once per phase rather than
+ * incrementing per row or per comparison, so the hot loops stay free of metric updates.
+ */
+class PipelineMetrics {
+
+    private final Timer parseTimer;
+    private final Timer overlapTimer;
+    private final Timer aggregateTimer;
+    private final Counter rowsParsed;
+    private final Counter rowsSkipped;
+    private final Counter rowsMerged;
+    private final Counter comparisons;
+    private final Counter pairsEmitted;
+    private final DistributionSummary projectSize;
+    private final DistributionSummary uploadSize;
+
+    PipelineMetrics(MeterRegistry registry) {
+        this.parseTimer = phaseTimer(registry, "parse");
+        this.overlapTimer = phaseTimer(registry, "overlap");
+        this.aggregateTimer = phaseTimer(registry, "aggregate");
+        this.rowsParsed = Counter.builder("employees.rows.parsed")
+                .description("Valid assignment rows parsed")
+                .register(registry);
+        this.rowsSkipped = Counter.builder("employees.rows.skipped")
+                .description("Rows skipped because of invalid dates")
+                .register(registry);
+        this.rowsMerged = Counter.builder("employees.rows.merged")
+                .description("Rows joined with an overlapping or adjacent row of the same employee and project")
+                .register(registry);
+        this.comparisons = Counter.builder("employees.overlap.comparisons")
+                .description("Assignment pairs compared by the overlap engine")
+                .register(registry);
+        this.pairsEmitted = Counter.builder("employees.pairs.emitted")
+                .description("Employee pairs returned to clients")
+                .register(registry);
+        this.projectSize = DistributionSummary.builder("employees.project.size")
+                .description("Assignment rows per project")
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.uploadSize = DistributionSummary.builder("employees.upload.size")
+                .description("Size of uploaded CSV files")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Timer phaseTimer(MeterRegistry registry, String phase) {
+        return Timer.builder("employees.pipeline.phase")
+                .description("Time spent in each phase of the upload pipeline")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    void parsed(long startNanos, long validRows, long skippedRows) {
+        parseTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        rowsParsed.increment(validRows);
+        rowsSkipped.increment(skippedRows);
+    }
+
+    void merged(long mergedRows) {
+        rowsMerged.increment(mergedRows);
+    }
+
+    void overlapped(long startNanos, long comparisonCount) {
+        overlapTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        comparisons.increment(comparisonCount);
+    }
+
+    void aggregated(long startNanos, long pairCount) {
+        aggregateTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        pairsEmitted.increment(pairCount);
+    }
+
+    void pairsEmitted(long pairCount) {
+        pairsEmitted.increment(pairCount);
+    }
+
+    void projectSize(int rows) {
+        projectSize.record(rows);
+    }
+
+    void uploadSize(long bytes) {
+        uploadSize.record(bytes);
+    }
+}
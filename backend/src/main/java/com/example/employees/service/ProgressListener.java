@@ -0,0 +1,20 @@
+package com.example.employees.service;
+
+import com.example.employees.model.JobPhase;
+
+/**
+ * Receives progress callbacks while a CSV is processed.
+ * {@link #projectOverlapped()} may be called from several threads in parallel mode.
+ */
+public interface ProgressListener {
+
+    ProgressListener NONE = new ProgressListener() {};
+
+    default void phaseStarted(JobPhase phase) {}
+
+    default void rowsParsed(long rows) {}
+
+    default void projectsToOverlap(int projects) {}
+
+    default void projectOverlapped() {}
+}
@@ -0,0 +1,34 @@
+package com.example.employees.service;
+
+/**
+ * Single assignment row: one employee working on one project for a date range.
+ * Dates are epoch days (see {@link java.time.LocalDate#toEpochDay()}), both ends inclusive,
+ * so overlap arithmetic is plain integer math without date objects.
+ */
+class ProjectEntry {
+    final int empId;
+    final int projectId;
+    final int dateFrom;
+    final int dateTo;
+
+    ProjectEntry(int empId, int projectId, int dateFrom, int dateTo) {
+        this.empId = empId;
+        this.projectId = projectId;
+        this.dateFrom = dateFrom;
+        this.dateTo = dateTo;
+    }
+
+    /**
+     * Inclusive length of the assignment in days, 0 for an inverted range.
+     */
+    long lengthDays() {
+        return Math.max(0, (long) dateTo - dateFrom + 1);
+    }
+
+    /**
+     * Days both entries share, or 0 when the ranges do not overlap.
+     */
+    long overlapDays(ProjectEntry other) {
+        return Math.max(0, (long) Math.min(dateTo, other.dateTo) - Math.max(dateFrom, other.dateFrom) + 1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.employees.service;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Interval index over the rows of one project, answering "which rows overlap these dates" in
+ * O(log n + k) for k hits.
+ * <p>
+ * The rows are kept sorted by start date and the sorted array doubles as an implicit, balanced
+ * binary search tree: the node at index {@code i} sits at the level given by the number of trailing
+ * one bits of {@code i}, its children are {@code i -/+ 2^(level-1)}. Every node stores the latest end
+ * date of its subtree, so subtrees that end before the queried range are skipped.
+ */
+class ProjectIntervalIndex {
+
+    // Subtrees at or below this level are scanned linearly instead of descended
+    private static final int SCAN_LEVEL = 3;
+
+    private final List<ProjectEntry> rows;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] maxEnds;
+    private final int rootLevel;
+
+    /**
+     * @param rows the project's rows, sorted by start date
+     */
+    ProjectIntervalIndex(List<ProjectEntry> rows) {
+        this.rows = rows;
+        int n = rows.size();
+        this.starts = new int[n];
+        this.ends = new int[n];
+        this.maxEnds = new int[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = rows.get(i).dateFrom;
+            ends[i] = rows.get(i).dateTo;
+        }
+        this.rootLevel = n == 0 ? -1 : buildMaxEnds();
+    }
+
+    // Fills maxEnds bottom up, returns the level of the root
+    private int buildMaxEnds() {
+        int n = starts.length;
+        // The rightmost node of the current level and its subtree maximum stand in for missing right children
+        int last = 0;
+        int lastMax = 0;
+        for (int i = 0; i < n; i += 2) {
+            last = i;
+            lastMax = maxEnds[i] = ends[i];
+        }
+        int level = 1;
+        for (; 1 << level <= n; level++) {
+            int half = 1 << (level - 1);
+            for (int i = (1 << level) - 1; i < n; i += 1 << (level + 1)) {
+                int left = maxEnds[i - half];
+                int right = i + half < n ? maxEnds[i + half] : lastMax;
+                maxEnds[i] = Math.max(ends[i], Math.max(left, right));
+            }
+            // Move 'last' up to its parent
+            last = (last >> level & 1) != 0 ? last - half : last + half;
+            if (last < n && maxEnds[last] > lastMax) {
+                lastMax = maxEnds[last];
+            }
+        }
+        return level - 1;
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    ProjectEntry row(int index) {
+        return rows.get(index);
+    }
+
+    /**
+     * Calls {@code visitor} with the index of every row sharing at least one day with {@code [from, to]}
+     * (epoch days, both inclusive), in no particular order.
+     */
+    void overlapping(int from, int to, IntConsumer visitor) {
+        if (rootLevel < 0) {
+            return;
+        }
+        int n = starts.length;
+        // Explicit stack of (level, node, left child done) frames
+        int[] levels = new int[2 * (rootLevel + 2)];
+        int[] nodes = new int[levels.length];
+        boolean[] leftDone = new boolean[levels.length];
+        int top = 0;
+        levels[top] = rootLevel;
+        nodes[top] = (1 << rootLevel) - 1;
+        leftDone[top++] = false;
+
+        while (top > 0) {
+            top--;
+            int level = levels[top];
+            int node = nodes[top];
+            if (level <= SCAN_LEVEL) {
+                int first = node >> level << level;
+                int end = Math.min(n, first + (1 << (level + 1)) - 1);
+                for (int i = first; i < end && starts[i] <= to; i++) {
+                    if (ends[i] >= from) {
+                        visitor.accept(i);
+                    }
+                }
+            } else if (!leftDone[top]) {
+                int left = node - (1 << (level - 1));
+                leftDone[top++] = true;
+                // A left child past the end still has rows below it
+                if (left >= n || maxEnds[left] >= from) {
+                    levels[top] = level - 1;
+                    nodes[top] = left;
+                    leftDone[top++] = false;
+                }
+            } else if (node < n && starts[node] <= to) {
+                if (ends[node] >= from) {
+                    visitor.accept(node);
+                }
+                levels[top] = level - 1;
+                nodes[top] = node + (1 << (level - 1));
+                leftDone[top++] = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * Keeps recent {@code /api/upload} results keyed by the SHA-256 of the uploaded bytes.
+ * <p>
+ * The hash is computed by the service while it parses, so a miss still reads the upload once.
+ * A lookup first compares a cheap probe (size plus a checksum of the first and last few KB) and only
+ * hashes the whole upload when some cached entry has the same probe, so unrelated uploads are not read
+ * twice. Entries are also keyed by the current day, as open-ended assignments run until today.
+ * Eviction is least recently used, bounded by entry count, estimated memory and a time to live.
+ * Hits and misses are exported as {@code employees.cache.lookups}.
+ */
+@Service
+public class ResultCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultCache.class);
+
+    private static final int SAMPLE_BYTES = 4096;
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+    // EmployeePairResult object plus its list slot
+    private static final long RESULT_BYTES = 40;
+
+    private final boolean enabled;
+
+    private final int maxEntries;
+
+    private final long maxBytes;
+
+    private final Duration ttl;
+
+    private final Clock clock;
+
+    private final LinkedHashMap<ContentKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public ResultCache(@Value("${result-cache.enabled:true}") boolean enabled,
+                       @Value("${result-cache.max-entries:64}") int maxEntries,
+                       @Value("${result-cache.max-memory-mb:64}") int maxMemoryMb,
+                       @Value("${result-cache.ttl-minutes:60}") long ttlMinutes) {
+        this(enabled, maxEntries, maxMemoryMb * 1024L * 1024L, Duration.ofMinutes(ttlMinutes), Clock.systemDefaultZone());
+    }
+
+    ResultCache(boolean enabled, int maxEntries, long maxBytes, Duration ttl, Clock clock) {
+        this.enabled = enabled && maxEntries > 0 && maxBytes > 0;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    static ResultCache disabled() {
+        return new ResultCache(false, 0, 0, Duration.ZERO, Clock.systemDefaultZone());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached result for an upload with the same content, without parsing it.
+     */
+    public Optional<List<EmployeePairResult>> lookup(MultipartFile file) throws IOException {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Probe probe = probe(file);
+        if (!hasCandidate(probe)) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        MessageDigest digest = newDigest();
+        try (InputStream input = new DigestInputStream(file.getInputStream(), digest)) {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        List<EmployeePairResult> result = get(new ContentKey(digest.digest(), probe.epochDay));
+        if (result == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(result);
+    }
+
+    /**
+     * Whether a result of {@code pairs} pairs would be kept by {@link #put}.
+     */
+    public boolean admits(int pairs) {
+        return enabled && entryBytes(pairs) <= maxBytes;
+    }
+
+    /**
+     * Stores {@code result} under {@code sha256}, the digest of every byte of {@code file}.
+     */
+    public void put(MultipartFile file, byte[] sha256, List<EmployeePairResult> result) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long bytes = entryBytes(result.size());
+        if (bytes > maxBytes) {
+            log.debug("Not caching a result of {} pairs, it exceeds the cache memory limit", result.size());
+            return;
+        }
+        Probe probe = probe(file);
+        Entry entry = new Entry(probe, List.copyOf(result), bytes, clock.instant().plus(ttl));
+
+        synchronized (this) {
+            Entry previous = entries.put(new ContentKey(sha256, probe.epochDay), entry);
+            if (previous != null) {
+                totalBytes -= previous.bytes;
+            }
+            totalBytes += bytes;
+            evict();
+        }
+        log.debug("Cached result of {} pairs for {} bytes of input", result.size(), probe.size);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("employees.cache.lookups", hits, LongAdder::sum)
+                .description("Result cache lookups")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("employees.cache.lookups", misses, LongAdder::sum)
+                .description("Result cache lookups")
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    public Stats stats() {
+        synchronized (this) {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), totalBytes);
+        }
+    }
+
+    private static long entryBytes(int pairs) {
+        return ENTRY_OVERHEAD_BYTES + RESULT_BYTES * pairs;
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private synchronized boolean hasCandidate(Probe probe) {
+        evictExpired();
+        for (Entry entry : entries.values()) {
+            if (entry.probe.equals(probe)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized List<EmployeePairResult> get(ContentKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.expiresAt.isAfter(clock.instant())) {
+            remove(key);
+            return null;
+        }
+        return entry.result;
+    }
+
+    private void evict() {
+        evictExpired();
+        // Access order puts the least recently used entry first
+        Iterator<Map.Entry<ContentKey, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().bytes;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private void evictExpired() {
+        Instant now = clock.instant();
+        entries.entrySet().removeIf(e -> {
+            if (e.getValue().expiresAt.isAfter(now)) {
+                return false;
+            }
+            totalBytes -= e.getValue().bytes;
+            evictions.increment();
+            return true;
+        });
+    }
+
+    private void remove(ContentKey key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes -= removed.bytes;
+            evictions.increment();
+        }
+    }
+
+    private Probe probe(MultipartFile file) throws IOException {
+        long size = file.getSize();
+        CRC32C checksum = new CRC32C();
+        try (InputStream input = file.getInputStream()) {
+            byte[] head = input.readNBytes(SAMPLE_BYTES);
+            checksum.update(head);
+            long tailStart = size - SAMPLE_BYTES;
+            if (tailStart > head.length) {
+                input.skipNBytes(tailStart - head.length);
+            }
+            checksum.update(input.readNBytes(SAMPLE_BYTES));
+        }
+        return new Probe(size, checksum.getValue(), (int) LocalDate.now(clock).toEpochDay());
+    }
+
+    public record Stats(long hits, long misses, long evictions, int entries, long memoryBytes) {
+    }
+
+    private record Probe(long size, long sampleChecksum, int epochDay) {
+    }
+
+    private record ContentKey(byte[] sha256, int epochDay) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ContentKey other && epochDay == other.epochDay && Arrays.equals(sha256, other.sha256);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(sha256) + epochDay;
+        }
+    }
+
+    private record Entry(Probe probe, List<EmployeePairResult> result, long bytes, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.employees.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Spreads the overlap computation over worker instances. Pair totals are sums over independent projects,
+ * so the projects are hash-partitioned into one shard per worker, each shard is posted to a worker's
+ * {@value #SHARD_PATH} as a binary snapshot, and the partial totals the workers send back are added up.
+ * <p>
+ * A shard whose worker fails, answers with an error or times out is sent to the next worker, up to
+ * {@code distributed.max-attempts} tries in total; after that the computation fails.
+ */
+@Service
+public class ShardCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    public static final String SHARD_PATH = "/api/shards";
+
+    private static final String OCTET_STREAM = "application/octet-stream";
+
+    // Spreads consecutive project ids over the shards (Fibonacci hashing)
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private final List<URI> workers;
+
+    private final long minRows;
+
+    private final int maxAttempts;
+
+    private final Duration timeout;
+
+    private final HttpClient client;
+
+    private final Counter completedShards;
+
+    private final Counter failedAttempts;
+
+    public ShardCoordinator(@Value("${distributed.workers:}") String workers,
+                            @Value("${distributed.min-rows:100000}") long minRows,
+                            @Value("${distributed.max-attempts:3}") int maxAttempts,
+                            @Value("${distributed.timeout-seconds:300}") long timeoutSeconds,
+                            MeterRegistry meterRegistry) {
+        this.workers = Arrays.stream(workers.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> URI.create(url.replaceAll("/+$", "") + SHARD_PATH))
+                .toList();
+        this.minRows = minRows;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.client = this.workers.isEmpty() ? null : HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.completedShards = Counter.builder("employees.shards")
+                .description("Shards computed by workers")
+                .tag("outcome", "completed")
+                .register(meterRegistry);
+        this.failedAttempts = Counter.builder("employees.shards")
+                .description("Shards computed by workers")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        if (!this.workers.isEmpty()) {
+            log.info("Distributing uploads of at least {} rows over {} workers: {}", minRows, this.workers.size(), this.workers);
+        }
+    }
+
+    static ShardCoordinator disabled() {
+        return new ShardCoordinator("", 0, 1, 1, new SimpleMeterRegistry());
+    }
+
+    public boolean isEnabled() {
+        return !workers.isEmpty();
+    }
+
+    /**
+     * Whether {@code projectMap} is sent to the workers rather than computed here.
+     */
+    boolean handles(Map<Integer, List<ProjectEntry>> projectMap) {
+        if (workers.isEmpty()) {
+            return false;
+        }
+        long rows = 0;
+        for (List<ProjectEntry> participants : projectMap.values()) {
+            rows += participants.size();
+        }
+        return rows >= minRows;
+    }
+
+    /**
+     * Has the workers compute the pair totals of {@code projectMap} and returns their sum, reporting each
+     * project to {@code progress} as its shard comes back.
+     */
+    PairTable accumulate(Map<Integer, List<ProjectEntry>> projectMap, ProgressListener progress) throws IOException {
+        List<Map<Integer, List<ProjectEntry>>> shards = partition(projectMap, workers.size());
+        List<CompletableFuture<PairTable>> pending = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (shards.get(shard).isEmpty()) {
+                pending.add(CompletableFuture.completedFuture(new PairTable()));
+                continue;
+            }
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            AssignmentSnapshot.write(shards.get(shard), body);
+            pending.add(send(shard, body.toByteArray(), shard, 1));
+        }
+
+        PairTable totals = new PairTable();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            try {
+                totals.mergeFrom(pending.get(shard).join());
+            } catch (CompletionException e) {
+                pending.forEach(future -> future.cancel(true));
+                throw new IOException("Shard " + shard + " failed after " + maxAttempts + " attempts", e.getCause());
+            }
+            for (int i = 0; i < shards.get(shard).size(); i++) {
+                progress.projectOverlapped();
+            }
+        }
+        return totals;
+    }
+
+    // Posts the shard to worker 'worker' and on failure to the next ones, 'attempt' counting from 1
+    private CompletableFuture<PairTable> send(int shard, byte[] body, int worker, int attempt) {
+        URI url = workers.get(worker % workers.size());
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", OCTET_STREAM)
+                .header("Accept", OCTET_STREAM)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        log.debug("Sending shard {} ({} bytes) to {}, attempt {}", shard, body.length, url, attempt);
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new UncheckedIOException(new IOException(url + " answered " + response.statusCode()));
+                    }
+                    try {
+                        return readTotals(response.body());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .handle((totals, failure) -> {
+                    if (failure == null) {
+                        completedShards.increment();
+                        return CompletableFuture.completedFuture(totals);
+                    }
+                    failedAttempts.increment();
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    if (attempt >= maxAttempts) {
+                        log.error("Shard {} failed on {}: {}, giving up after {} attempts", shard, url, cause.toString(), attempt);
+                        return CompletableFuture.<PairTable>failedFuture(cause);
+                    }
+                    log.warn("Shard {} failed on {}: {}, retrying on the next worker", shard, url, cause.toString());
+                    return send(shard, body, worker + 1, attempt + 1);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    static List<Map<Integer, List<ProjectEntry>>> partition(Map<Integer, List<ProjectEntry>> projectMap, int shardCount) {
+        List<Map<Integer, List<ProjectEntry>>> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new HashMap<>());
+        }
+        for (Map.Entry<Integer, List<ProjectEntry>> entry : projectMap.entrySet()) {
+            int shard = Math.floorMod(entry.getKey() * HASH_MULTIPLIER, shardCount);
+            shards.get(shard).put(entry.getKey(), entry.getValue());
+        }
+        return shards;
+    }
+
+    /**
+     * Writes the totals a worker computed for a shard: the pair count, then empId1, empId2 and days per pair.
+     */
+    public static void writeTotals(PairResults totals, OutputStream target) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, 65536));
+        out.writeInt(totals.size());
+        totals.forEachOrdered((empId1, empId2, days) -> {
+            out.writeInt(empId1);
+            out.writeInt(empId2);
+            out.writeLong(days);
+        });
+        out.flush();
+    }
+
+    static PairTable readTotals(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        int size = in.readInt();
+        if (size < 0 || body.length != Integer.BYTES + size * 16L) {
+            throw new EOFException("Truncated shard totals: " + body.length + " bytes for " + size + " pairs");
+        }
+        PairTable totals = new PairTable(size);
+        for (int i = 0; i < size; i++) {
+            totals.add(in.readInt(), in.readInt(), in.readLong());
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.employees.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes an already parsed upload in the binary snapshot format.
+ */
+@FunctionalInterface
+public interface SnapshotWriter {
+    void writeTo(OutputStream out) throws IOException;
+}
@@ -0,0 +1,88 @@
+package com.example.employees.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces the rows of the same employee within one project that overlap or directly follow each other,
+ * so an employee listed twice for the same days is not paired twice with every colleague.
+ * Adjacent rows are joined as well: that leaves the totals unchanged but saves comparisons.
+ */
+final class StintMerger {
+
+    private static final Comparator<ProjectEntry> BY_EMPLOYEE_AND_DATE_FROM =
+            Comparator.<ProjectEntry>comparingInt(pe -> pe.empId).thenComparingInt(pe -> pe.dateFrom);
+
+    private StintMerger() {
+    }
+
+    /**
+     * Returns {@code participants} with each employee's overlapping or adjacent rows joined into one,
+     * grouped by employee; the input list itself when there is nothing to join. Inverted ranges never
+     * overlap anything and are kept as they are.
+     */
+    static List<ProjectEntry> merge(List<ProjectEntry> participants) {
+        if (participants.size() < 2) {
+            return participants;
+        }
+        List<ProjectEntry> sorted = new ArrayList<>(participants);
+        sorted.sort(BY_EMPLOYEE_AND_DATE_FROM);
+
+        List<ProjectEntry> merged = new ArrayList<>(sorted.size());
+        ProjectEntry current = null;
+        for (ProjectEntry row : sorted) {
+            if (row.dateFrom > row.dateTo) {
+                merged.add(row);
+            } else if (current != null && current.empId == row.empId
+                    && (long) row.dateFrom <= (long) current.dateTo + 1) {
+                if (row.dateTo > current.dateTo) {
+                    current = new ProjectEntry(current.empId, current.projectId, current.dateFrom, row.dateTo);
+                }
+            } else {
+                if (current != null) {
+                    merged.add(current);
+                }
+                current = row;
+            }
+        }
+        if (current != null) {
+            merged.add(current);
+        }
+        return merged.size() == participants.size() ? participants : merged;
+    }
+
+    /**
+     * Merges every project of {@code projectMap} in place and returns the number of rows merged away.
+     */
+    static long mergeAll(Map<Integer, List<ProjectEntry>> projectMap) {
+        long mergedRows = 0;
+        for (Map.Entry<Integer, List<ProjectEntry>> entry : projectMap.entrySet()) {
+            List<ProjectEntry> merged = merge(entry.getValue());
+            mergedRows += entry.getValue().size() - merged.size();
+            entry.setValue(merged);
+        }
+        return mergedRows;
+    }
+
+    /**
+     * Whether any of {@code added} overlaps or directly follows a row of the same employee in {@code rows}.
+     */
+    static boolean touchesExisting(List<ProjectEntry> rows, List<ProjectEntry> added) {
+        Map<Integer, List<ProjectEntry>> byEmployee = new HashMap<>();
+        for (ProjectEntry row : added) {
+            byEmployee.computeIfAbsent(row.empId, k -> new ArrayList<>()).add(row);
+        }
+        for (ProjectEntry existing : rows) {
+            for (ProjectEntry row : byEmployee.getOrDefault(existing.empId, List.of())) {
+                if ((long) row.dateFrom <= (long) existing.dateTo + 1 && (long) existing.dateFrom <= (long) row.dateTo + 1
+                        && row.dateFrom <= row.dateTo && existing.dateFrom <= existing.dateTo) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.employees.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sorts the project's entries by start date and sweeps over them keeping only the
+ * still-running assignments in an active set. Each new entry is compared only with
+ * entries it actually overlaps, so sparse projects cost roughly O(n log n).
+ * An entry owns its pairs with the earlier-starting entries still active when it starts.
+ */
+class SweepLineOverlapEngine implements OverlapEngine {
+
+    private static final Comparator<ProjectEntry> BY_DATE_FROM = Comparator.comparingInt(pe -> pe.dateFrom);
+
+    @Override
+    public List<ProjectEntry> prepare(List<ProjectEntry> participants) {
+        List<ProjectEntry> sorted = new ArrayList<>(participants);
+        sorted.sort(BY_DATE_FROM);
+        return sorted;
+    }
+
+    @Override
+    public long accumulateRange(List<ProjectEntry> sorted, int from, int to, PairTable pairTotalDuration) {
+        List<ProjectEntry> active = new ArrayList<>();
+        if (from > 0 && from < to) {
+            // Rebuild the active set as it would be when the sweep reaches 'from'
+            ProjectEntry first = sorted.get(from);
+            for (int i = 0; i < from; i++) {
+                if (sorted.get(i).dateTo >= first.dateFrom) {
+                    active.add(sorted.get(i));
+                }
+            }
+        }
+
+        long comparisons = 0;
+
+        for (int index = from; index < to; index++) {
+            ProjectEntry current = sorted.get(index);
+            // Drop assignments that ended before the current one starts; every survivor overlaps it
+            int kept = 0;
+            for (int i = 0; i < active.size(); i++) {
+                ProjectEntry candidate = active.get(i);
+                if (candidate.dateTo < current.dateFrom) {
+                    continue;
+                }
+                active.set(kept++, candidate);
+                comparisons++;
+
+                long days = candidate.overlapDays(current);
+                if (days > 0) {
+                    pairTotalDuration.add(candidate.empId, current.empId, days);
+                }
+            }
+            active.subList(kept, active.size()).clear();
+            active.add(current);
+        }
+        return comparisons;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.employees.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Helpers for answering "which K pairs worked together longest" without materializing every pair.
+ */
+final class TopPairs {
+
+    private static final int MIN_CANDIDATES = 64;
+
+    private TopPairs() {
+    }
+
+    /**
+     * Pair key with its total, ordered best first: more days, then smaller (empId1, empId2).
+     */
+    record Ranked(long key, long days) implements Comparable<Ranked> {
+        @Override
+        public int compareTo(Ranked other) {
+            if (days != other.days) {
+                return Long.compare(other.days, days);
+            }
+            return Long.compare(PairTable.signedOrder(key), PairTable.signedOrder(other.key));
+        }
+    }
+
+    /**
+     * Keeps the best {@code k} pairs of {@code totals} in a bounded heap and returns them best first.
+     */
+    static List<Ranked> best(PairTable totals, int k) {
+        // Worst of the kept pairs sits on top so it can be replaced in O(log k); never more than all pairs are kept
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(Math.max(1, Math.min(k, totals.size())), (a, b) -> b.compareTo(a));
+        totals.forEach((empId1, empId2, days) -> {
+            Ranked candidate = new Ranked(PairTable.key(empId1, empId2), days);
+            if (heap.size() < k) {
+                heap.add(candidate);
+            } else if (candidate.compareTo(heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        });
+        List<Ranked> best = new ArrayList<>(heap);
+        best.sort(null);
+        return best;
+    }
+
+    /**
+     * Upper bound on the total of any pair containing each employee.
+     * <p>
+     * Within a project, a pair's overlap is at most one employee's assignment days times the
+     * number of stints the other has there, so summing each employee's days per project
+     * multiplied by the project's highest per-employee stint count bounds all of their pairs.
+     */
+    static Map<Integer, Long> employeeUpperBounds(Map<Integer, List<ProjectEntry>> projectMap) {
+        Map<Integer, Long> bounds = new HashMap<>();
+        for (List<ProjectEntry> participants : projectMap.values()) {
+            Map<Integer, Integer> stints = new HashMap<>();
+            Map<Integer, Long> days = new HashMap<>();
+            for (ProjectEntry entry : participants) {
+                stints.merge(entry.empId, 1, Integer::sum);
+                days.merge(entry.empId, entry.lengthDays(), Long::sum);
+            }
+            int maxStints = stints.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+            days.forEach((empId, total) -> bounds.merge(empId, total * maxStints, Long::sum));
+        }
+        return bounds;
+    }
+
+    /**
+     * Employees worth computing exactly first: the ones with the highest upper bounds.
+     */
+    static Set<Integer> candidates(Map<Integer, Long> upperBounds, int k) {
+        int count = Math.max(MIN_CANDIDATES, 4 * (int) Math.ceil(Math.sqrt(k)));
+        Integer[] employees = upperBounds.keySet().toArray(new Integer[0]);
+        Arrays.sort(employees, (a, b) -> Long.compare(upperBounds.get(b), upperBounds.get(a)));
+        return new HashSet<>(Arrays.asList(employees).subList(0, Math.min(count, employees.length)));
+    }
+
+    /**
+     * Copy of {@code projectMap} restricted to the given employees, dropping projects left with fewer than two entries.
+     */
+    static Map<Integer, List<ProjectEntry>> restrict(Map<Integer, List<ProjectEntry>> projectMap, Set<Integer> employees) {
+        Map<Integer, List<ProjectEntry>> restricted = new HashMap<>();
+        for (Map.Entry<Integer, List<ProjectEntry>> entry : projectMap.entrySet()) {
+            List<ProjectEntry> kept = new ArrayList<>();
+            for (ProjectEntry participant : entry.getValue()) {
+                if (employees.contains(participant.empId)) {
+                    kept.add(participant);
+                }
+            }
+            if (kept.size() > 1) {
+                restricted.put(entry.getKey(), kept);
+            }
+        }
+        return restricted;
+    }
+}
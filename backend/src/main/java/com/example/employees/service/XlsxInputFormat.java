@@ -0,0 +1,456 @@
+package com.example.employees.service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Excel workbooks (.xlsx). The archive is decompressed entry by entry as it arrives and the first worksheet
+ * is pulled row by row with StAX; nothing is copied to disk or loaded as a DOM.
+ * <p>
+ * The first worksheet is the first sheet listed in {@code xl/workbook.xml}, found through the workbook's
+ * relationships. Text cells usually point into the shared-string table, and numeric cells in the date columns
+ * are serial dates of the date system the workbook declares. Rows are therefore held as parsed cells until the
+ * workbook, its relationships and the shared strings have been read, and worksheets stored before it is known
+ * which one comes first are held the same way. Held rows count against the row budget. A workbook without
+ * relationships falls back to the first worksheet in archive order.
+ */
+class XlsxInputFormat implements InputFormat {
+
+    private static final String WORKBOOK = "xl/workbook.xml";
+    private static final String WORKBOOK_RELS = "xl/_rels/workbook.xml.rels";
+    private static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+    private static final String WORKSHEETS = "xl/worksheets/";
+
+    // Epoch day of serial 0 in the 1900 date system (valid from March 1900, Excel counts a 29 Feb 1900) and in the 1904 one
+    private static final int SERIAL_EPOCH_1900 = -25569;
+    private static final int SERIAL_EPOCH_1904 = -24107;
+
+    // Columns of an Excel worksheet (A to XFD), cells beyond are ignored
+    private static final int MAX_COLUMNS = 16384;
+
+    private static final byte TEXT = 0;
+    private static final byte NUMBER = 1;
+    private static final byte SHARED = 2;
+
+    @Override
+    public String name() {
+        return "xlsx";
+    }
+
+    @Override
+    public boolean matches(byte[] head, int length) {
+        return length >= 4 && head[0] == 'P' && head[1] == 'K' && head[2] == 3 && head[3] == 4;
+    }
+
+    @Override
+    public AssignmentRows open(InputStream input, long maxRows) {
+        return new XlsxRows(new ZipInputStream(InputFormat.unclosable(input)), maxRows);
+    }
+
+    private static final class XlsxRows implements AssignmentRows {
+
+        private final ZipInputStream zip;
+        private final long maxRows;
+        private final XMLInputFactory xmlFactory;
+        // Rows of the first worksheet not handed out yet
+        private final ArrayDeque<SheetRow> pending = new ArrayDeque<>();
+        // Worksheets read before it was known which one comes first, in archive order
+        private final Map<String, ArrayDeque<SheetRow>> candidates = new LinkedHashMap<>();
+
+        private XMLStreamReader sheet;
+        private String sheetName;
+        private boolean archiveDone;
+        private boolean workbookRead;
+        private boolean date1904;
+        // Relationship id of the first sheet, then the archive entry it refers to
+        private String firstSheetId;
+        private Map<String, String> relationships;
+        private String firstSheet;
+        private boolean firstSheetRead;
+        private List<String> sharedStrings;
+        // Worksheet column of each of COLUMNS, known once the header row has been read
+        private int[] columns;
+        private long rowCount;
+
+        XlsxRows(ZipInputStream zip, long maxRows) {
+            this.zip = zip;
+            this.maxRows = maxRows;
+            this.xmlFactory = XMLInputFactory.newFactory();
+            xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            try {
+                for (SheetRow row = nextSheetRow(); row != null; row = nextSheetRow()) {
+                    if (columns == null) {
+                        columns = headerColumns(row);
+                        continue;
+                    }
+                    String[] values = new String[COLUMNS.size()];
+                    boolean blank = true;
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = value(row, columns[i], i == DATE_FROM || i == DATE_TO);
+                        blank &= values[i].isEmpty();
+                    }
+                    if (!blank) {
+                        return values;
+                    }
+                }
+                return null;
+            } catch (XMLStreamException e) {
+                throw new IOException("Malformed workbook: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (sheet != null) {
+                    sheet.close();
+                }
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            } finally {
+                zip.close();
+            }
+        }
+
+        // Next row of the first worksheet in order, once the date system and the strings it may refer to are known
+        private SheetRow nextSheetRow() throws IOException, XMLStreamException {
+            while (true) {
+                if (sheet != null) {
+                    SheetRow row = readRow();
+                    if (row == null) {
+                        sheet.close();
+                        sheet = null;
+                        firstSheetRead |= sheetName.equals(firstSheet);
+                    } else if (!sheetName.equals(firstSheet)) {
+                        candidates.get(sheetName).add(row);
+                    } else if (pending.isEmpty() && workbookRead && sharedStrings != null) {
+                        return row;
+                    } else {
+                        pending.add(row);
+                    }
+                    continue;
+                }
+                if (firstSheetRead && (workbookRead && sharedStrings != null || archiveDone)) {
+                    return pending.poll();
+                }
+                ZipEntry entry = archiveDone ? null : zip.getNextEntry();
+                if (entry == null) {
+                    archiveDone = true;
+                    endOfArchive();
+                } else if (entry.getName().equals(WORKBOOK)) {
+                    readWorkbook();
+                    workbookRead = true;
+                    resolveFirstSheet();
+                } else if (entry.getName().equals(WORKBOOK_RELS)) {
+                    relationships = readRelationships();
+                    resolveFirstSheet();
+                } else if (entry.getName().equals(SHARED_STRINGS)) {
+                    sharedStrings = readSharedStrings();
+                } else if (entry.getName().startsWith(WORKSHEETS) && entry.getName().endsWith(".xml")) {
+                    if (firstSheet == null) {
+                        candidates.put(entry.getName(), new ArrayDeque<>());
+                    } else if (!entry.getName().equals(firstSheet)) {
+                        continue;
+                    }
+                    sheet = entryReader();
+                    sheetName = entry.getName();
+                }
+            }
+        }
+
+        // Keeps the held rows of the first worksheet, if it has been read already, and drops the other worksheets
+        private void resolveFirstSheet() {
+            if (firstSheet != null || firstSheetId == null || relationships == null) {
+                return;
+            }
+            firstSheet = relationships.get(firstSheetId);
+            if (firstSheet == null) {
+                throw new IllegalArgumentException("Workbook has no worksheet for relationship " + firstSheetId);
+            }
+            ArrayDeque<SheetRow> held = candidates.remove(firstSheet);
+            if (held != null) {
+                pending.addAll(held);
+                firstSheetRead = true;
+            }
+            candidates.clear();
+        }
+
+        private void endOfArchive() {
+            if (firstSheet == null && !candidates.isEmpty()) {
+                // No relationships to go by
+                Map.Entry<String, ArrayDeque<SheetRow>> first = candidates.entrySet().iterator().next();
+                firstSheet = first.getKey();
+                pending.addAll(first.getValue());
+                firstSheetRead = true;
+                candidates.clear();
+            }
+            if (!firstSheetRead) {
+                throw new IllegalArgumentException(firstSheet == null ? "Workbook has no worksheet" : "Workbook has no " + firstSheet);
+            }
+        }
+
+        // The JDK's reader closes its input at the end of the document, which would end the archive
+        private XMLStreamReader entryReader() throws XMLStreamException {
+            return xmlFactory.createXMLStreamReader(InputFormat.unclosable(zip));
+        }
+
+        private SheetRow readRow() throws XMLStreamException {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && sheet.getLocalName().equals("row")) {
+                    if (maxRows > 0 && ++rowCount > maxRows + 1) {
+                        throw InputFormat.rowBudgetExceeded(maxRows);
+                    }
+                    return readCells();
+                }
+            }
+            return null;
+        }
+
+        private SheetRow readCells() throws XMLStreamException {
+            SheetRow row = new SheetRow();
+            int column = -1;
+            while (sheet.hasNext()) {
+                int event = sheet.next();
+                if (event == XMLStreamConstants.END_ELEMENT && sheet.getLocalName().equals("row")) {
+                    return row;
+                }
+                if (event == XMLStreamConstants.START_ELEMENT && sheet.getLocalName().equals("c")) {
+                    String reference = sheet.getAttributeValue(null, "r");
+                    column = reference != null ? column(reference) : column + 1;
+                    readCell(row, column, sheet.getAttributeValue(null, "t"));
+                }
+            }
+            return row;
+        }
+
+        private void readCell(SheetRow row, int column, String type) throws XMLStreamException {
+            String value = "";
+            StringBuilder inline = null;
+            while (sheet.hasNext()) {
+                int event = sheet.next();
+                if (event == XMLStreamConstants.END_ELEMENT && sheet.getLocalName().equals("c")) {
+                    break;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                if (sheet.getLocalName().equals("v")) {
+                    value = sheet.getElementText();
+                } else if (sheet.getLocalName().equals("t")) {
+                    // Inline string, possibly split into rich text runs
+                    inline = inline == null ? new StringBuilder() : inline;
+                    inline.append(sheet.getElementText());
+                }
+            }
+            if (type == null || type.equals("n")) {
+                row.set(column, NUMBER, value);
+            } else if (type.equals("s")) {
+                row.set(column, SHARED, value);
+            } else if (type.equals("inlineStr")) {
+                row.set(column, TEXT, inline != null ? inline.toString() : "");
+            } else if (type.equals("d")) {
+                // ISO 8601 date, possibly with a time
+                int time = value.indexOf('T');
+                row.set(column, TEXT, time >= 0 ? value.substring(0, time) : value);
+            } else {
+                row.set(column, TEXT, value);
+            }
+        }
+
+        private int[] headerColumns(SheetRow header) {
+            int[] found = new int[COLUMNS.size()];
+            Arrays.fill(found, -1);
+            for (int column = 0; column < header.length(); column++) {
+                int index = COLUMNS.indexOf(value(header, column, false).trim());
+                if (index >= 0 && found[index] < 0) {
+                    found[index] = column;
+                }
+            }
+            for (int i = 0; i < found.length; i++) {
+                if (found[i] < 0) {
+                    throw new IllegalArgumentException("Worksheet header has no " + COLUMNS.get(i) + " column");
+                }
+            }
+            return found;
+        }
+
+        private String value(SheetRow row, int column, boolean date) {
+            if (column >= row.length() || row.values[column] == null) {
+                return "";
+            }
+            String value = row.values[column];
+            switch (row.kinds[column]) {
+                case SHARED:
+                    int index = Integer.parseInt(value);
+                    if (sharedStrings == null || index < 0 || index >= sharedStrings.size()) {
+                        throw new IllegalArgumentException("Worksheet refers to missing shared string " + index);
+                    }
+                    return sharedStrings.get(index);
+                case NUMBER:
+                    if (value.isEmpty()) {
+                        return value;
+                    }
+                    if (date) {
+                        int serial = (int) Math.floor(Double.parseDouble(value));
+                        return LocalDate.ofEpochDay(serial + (date1904 ? SERIAL_EPOCH_1904 : SERIAL_EPOCH_1900)).toString();
+                    }
+                    // Ids written as 1.0 or 1E3 by some tools
+                    return value.indexOf('.') < 0 && value.indexOf('E') < 0
+                            ? value : new BigDecimal(value).stripTrailingZeros().toPlainString();
+                default:
+                    return value;
+            }
+        }
+
+        // The date system and the relationship id of the first sheet; workbookPr precedes the sheets
+        private void readWorkbook() throws XMLStreamException {
+            XMLStreamReader workbook = entryReader();
+            try {
+                while (workbook.hasNext()) {
+                    if (workbook.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    if (workbook.getLocalName().equals("workbookPr")) {
+                        String value = workbook.getAttributeValue(null, "date1904");
+                        date1904 = "1".equals(value) || "true".equals(value);
+                    } else if (workbook.getLocalName().equals("sheet")) {
+                        firstSheetId = relationshipId(workbook);
+                        return;
+                    }
+                }
+            } finally {
+                workbook.close();
+            }
+        }
+
+        // The r:id attribute; its namespace differs between transitional and strict workbooks
+        private static String relationshipId(XMLStreamReader element) {
+            for (int i = 0; i < element.getAttributeCount(); i++) {
+                String namespace = element.getAttributeNamespace(i);
+                if (element.getAttributeLocalName(i).equals("id") && namespace != null && !namespace.isEmpty()) {
+                    return element.getAttributeValue(i);
+                }
+            }
+            return null;
+        }
+
+        // Relationship id -> archive entry; targets are relative to xl/ unless they start with a slash
+        private Map<String, String> readRelationships() throws XMLStreamException {
+            Map<String, String> targets = new HashMap<>();
+            XMLStreamReader rels = entryReader();
+            try {
+                while (rels.hasNext()) {
+                    if (rels.next() == XMLStreamConstants.START_ELEMENT && rels.getLocalName().equals("Relationship")) {
+                        String id = rels.getAttributeValue(null, "Id");
+                        String target = rels.getAttributeValue(null, "Target");
+                        if (id != null && target != null) {
+                            targets.put(id, target.startsWith("/") ? target.substring(1) : "xl/" + target);
+                        }
+                    }
+                }
+                return targets;
+            } finally {
+                rels.close();
+            }
+        }
+
+        private List<String> readSharedStrings() throws XMLStreamException {
+            long maxStrings = maxRows > 0 ? maxRows * COLUMNS.size() : Long.MAX_VALUE;
+            List<String> strings = new ArrayList<>();
+            XMLStreamReader table = entryReader();
+            try {
+                StringBuilder text = null;
+                // Phonetic runs (rPh) hold readings of the text, not part of it
+                int phoneticDepth = 0;
+                while (table.hasNext()) {
+                    int event = table.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String name = table.getLocalName();
+                        if (name.equals("si")) {
+                            text = new StringBuilder();
+                        } else if (name.equals("rPh")) {
+                            phoneticDepth++;
+                        } else if (name.equals("t") && text != null && phoneticDepth == 0) {
+                            text.append(table.getElementText());
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        String name = table.getLocalName();
+                        if (name.equals("rPh")) {
+                            phoneticDepth--;
+                        } else if (name.equals("si") && text != null) {
+                            if (strings.size() >= maxStrings) {
+                                throw InputFormat.rowBudgetExceeded(maxRows);
+                            }
+                            strings.add(text.toString());
+                            text = null;
+                        }
+                    }
+                }
+                return strings;
+            } finally {
+                table.close();
+            }
+        }
+
+        // "BC12" -> 54
+        private static int column(String reference) {
+            int column = 0;
+            for (int i = 0; i < reference.length(); i++) {
+                char c = reference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+                if (column > MAX_COLUMNS) {
+                    break;
+                }
+            }
+            return column - 1;
+        }
+    }
+
+    // Cells of one worksheet row by column, unresolved
+    private static final class SheetRow {
+        String[] values = new String[4];
+        byte[] kinds = new byte[4];
+        private int length;
+
+        void set(int column, byte kind, String value) {
+            if (column < 0 || column >= MAX_COLUMNS) {
+                return;
+            }
+            if (column >= values.length) {
+                int size = Math.max(column + 1, values.length * 2);
+                values = Arrays.copyOf(values, size);
+                kinds = Arrays.copyOf(kinds, size);
+            }
+            values[column] = value;
+            kinds[column] = kind;
+            length = Math.max(length, column + 1);
+        }
+
+        int length() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.employees.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ComputeAdmissionInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ComputeAdmission admission = new ComputeAdmission(1, 0, registry);
+
+    private final ComputeAdmissionInterceptor interceptor = new ComputeAdmissionInterceptor(admission);
+
+    @Test
+    public void testSecondComputationIsTurnedAwayUntilTheFirstCompletes() throws Exception {
+        MockHttpServletRequest first = post();
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), new Object()));
+        assertEquals(1, registry.get("employees.compute.active").gauge().value());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(post(), rejected, new Object()));
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1, registry.get("employees.compute.rejected").counter().count());
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), new Object(), null);
+        // A second completion callback for the same request must not free a slot twice
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), new Object(), null);
+        assertEquals(0, registry.get("employees.compute.active").gauge().value());
+        assertTrue(interceptor.preHandle(post(), new MockHttpServletResponse(), new Object()));
+        assertFalse(interceptor.preHandle(post(), new MockHttpServletResponse(), new Object()));
+    }
+
+    @Test
+    public void testStreamedResponsesReleaseTheirSlotWhenWritingStarts() throws Exception {
+        MockHttpServletRequest streamed = post();
+        assertTrue(interceptor.preHandle(streamed, new MockHttpServletResponse(), new Object()));
+
+        interceptor.afterConcurrentHandlingStarted(streamed, new MockHttpServletResponse(), new Object());
+        assertEquals(0, registry.get("employees.compute.active").gauge().value());
+
+        // The async dispatch that finishes the response is not gated and has nothing to release
+        streamed.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(streamed, new MockHttpServletResponse(), new Object()));
+        interceptor.afterCompletion(streamed, new MockHttpServletResponse(), new Object(), null);
+        assertEquals(0, registry.get("employees.compute.active").gauge().value());
+    }
+
+    @Test
+    public void testReadsAreNotGated() throws Exception {
+        assertTrue(interceptor.preHandle(post(), new MockHttpServletResponse(), new Object()));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/datasets/ds1/pairs"),
+                new MockHttpServletResponse(), new Object()));
+    }
+
+    private static MockHttpServletRequest post() {
+        return new MockHttpServletRequest("POST", "/api/upload");
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.employees.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UploadSizeFilterTest {
+
+    private static final long MAX_FILE_BYTES = 1024;
+
+    private final UploadSizeFilter filter = new UploadSizeFilter(MAX_FILE_BYTES, "/api/jobs");
+
+    @Test
+    public void testOversizedMultipartIsRejectedBeforeItIsRead() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(multipart("/api/upload", MAX_FILE_BYTES + UploadSizeFilter.MULTIPART_OVERHEAD_BYTES + 1),
+                response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest(), "Rejected request must not reach the servlet");
+    }
+
+    @Test
+    public void testJobsAndSmallUploadsPassThrough() throws Exception {
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{
+                multipart("/api/jobs", 10 * MAX_FILE_BYTES + UploadSizeFilter.MULTIPART_OVERHEAD_BYTES),
+                multipart("/api/upload", MAX_FILE_BYTES)}) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(request, response, chain);
+
+            assertEquals(200, response.getStatus());
+            assertSame(request, chain.getRequest());
+        }
+    }
+
+    @Test
+    public void testRawBodiesAreLeftToTheirEndpoints() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/upload/stream");
+        request.setContentType("text/csv");
+        request.setContent(new byte[(int) (2 * MAX_FILE_BYTES + UploadSizeFilter.MULTIPART_OVERHEAD_BYTES)]);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+    }
+
+    private static MockHttpServletRequest multipart(String uri, long contentLength) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContentType("multipart/form-data; boundary=x");
+        request.setContent(new byte[(int) contentLength]);
+        return request;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.employees.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "result-cache.enabled=false")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class ActuatorEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testPrometheusExposesPipelineMetrics() throws Exception {
+        String csv = """
+                EmpID,ProjectID,DateFrom,DateTo
+                1,100,2023-01-01,2023-01-10
+                2,100,2023-01-05,2023-01-15""";
+        mockMvc.perform(multipart("/api/upload").file(new MockMultipartFile("file", "test.csv", "text/csv", csv.getBytes())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("employees_pipeline_phase_seconds_count{phase=\"parse\"")))
+                .andExpect(content().string(containsString("employees_rows_parsed_total")))
+                .andExpect(content().string(containsString("employees_upload_size_bytes_count")))
+                .andExpect(content().string(containsString("employees_cache_lookups_total{result=\"hit\"}")));
+    }
+}
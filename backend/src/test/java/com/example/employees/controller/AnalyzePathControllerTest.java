@@ -0,0 +1,70 @@
+package com.example.employees.controller;
+
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.service.PathAnalysisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AnalyzePathControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PathAnalysisService pathAnalysisService;
+
+    @TestConfiguration
+    static class MockServiceConfig {
+        @Bean
+        public PathAnalysisService pathAnalysisService() {
+            return Mockito.mock(PathAnalysisService.class);
+        }
+    }
+
+    @BeforeEach
+    void resetMock() {
+        Mockito.reset(pathAnalysisService);
+    }
+
+    @Test
+    void testAnalyzePath_success() throws Exception {
+        doReturn(List.of(new EmployeePairResult(1, 2, 6))).when(pathAnalysisService).analyze("exports/nightly.csv");
+
+        mockMvc.perform(post("/api/analyze-path").param("path", "exports/nightly.csv"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].daysWorked").value(6));
+    }
+
+    @Test
+    void testAnalyzePath_rejectedAndMissing() throws Exception {
+        doThrow(new AccessDeniedException("export.csv")).when(pathAnalysisService).analyze("export.csv");
+        doThrow(new NoSuchFileException("../etc/passwd")).when(pathAnalysisService).analyze("../etc/passwd");
+        doThrow(new NoSuchFileException("missing.csv")).when(pathAnalysisService).analyze("missing.csv");
+
+        // Forbidden only while no directory is configured; paths outside it are answered like missing files
+        mockMvc.perform(post("/api/analyze-path").param("path", "export.csv"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/analyze-path").param("path", "../etc/passwd"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/analyze-path").param("path", "missing.csv"))
+                .andExpect(status().isNotFound());
+    }
+}
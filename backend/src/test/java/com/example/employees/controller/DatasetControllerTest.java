@@ -0,0 +1,128 @@
+package com.example.employees.controller;
+
+import com.example.employees.model.ColleagueResult;
+import com.example.employees.model.DatasetInfo;
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.ProjectOverlap;
+import com.example.employees.model.TopPairResult;
+import com.example.employees.service.DatasetService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DatasetControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatasetService datasetService;
+
+    @TestConfiguration
+    static class MockServiceConfig {
+        @Bean
+        public DatasetService datasetService() {
+            return Mockito.mock(DatasetService.class);
+        }
+    }
+
+    @BeforeEach
+    void resetMock() {
+        Mockito.reset(datasetService);
+    }
+
+    @Test
+    void testCreate_created() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "base.csv", "text/csv", "EmpID,ProjectID,DateFrom,DateTo".getBytes());
+        doReturn(new DatasetInfo("ds1", 2, 1, 1, 1)).when(datasetService).create(any());
+
+        mockMvc.perform(multipart("/api/datasets").file(file))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/datasets/ds1"))
+                .andExpect(jsonPath("$.rows").value(2));
+    }
+
+    @Test
+    void testAppendRows() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "delta.csv", "text/csv", "EmpID,ProjectID,DateFrom,DateTo".getBytes());
+        doReturn(Optional.of(new DatasetInfo("ds1", 5, 2, 3, 1))).when(datasetService).appendRows(eq("ds1"), any());
+        doReturn(Optional.empty()).when(datasetService).appendRows(eq("missing"), any());
+
+        mockMvc.perform(multipart("/api/datasets/ds1/rows").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affectedProjects").value(1));
+        mockMvc.perform(multipart("/api/datasets/missing/rows").file(file))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPairsAndRecompute() throws Exception {
+        doReturn(Optional.of(List.of(new EmployeePairResult(1, 2, 6)))).when(datasetService).pairs("ds1");
+        doReturn(Optional.of(new DatasetInfo("ds1", 5, 2, 3, 2))).when(datasetService).recompute("ds1");
+        doReturn(Optional.empty()).when(datasetService).recompute("missing");
+
+        mockMvc.perform(get("/api/datasets/ds1/pairs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].daysWorked").value(6));
+        mockMvc.perform(post("/api/datasets/ds1/recompute"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pairs").value(3));
+        mockMvc.perform(post("/api/datasets/missing/recompute"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testQueries() throws Exception {
+        doReturn(Optional.of(List.of(new ColleagueResult(2, 10, List.of(new ProjectOverlap(100, 10))))))
+                .when(datasetService).colleagues("ds1", 1, 100, LocalDate.of(2023, 2, 1), null);
+        doReturn(Optional.of(new TopPairResult(1, 2, 16, List.of(new ProjectOverlap(100, 10), new ProjectOverlap(200, 6)))))
+                .when(datasetService).pair("ds1", 2, 1);
+        doReturn(Optional.of(List.of(new EmployeePairResult(1, 3, 11))))
+                .when(datasetService).overlapsWithin("ds1", 100, LocalDate.of(2023, 2, 1), LocalDate.of(2023, 2, 15));
+
+        mockMvc.perform(get("/api/datasets/ds1/employees/1/colleagues").param("projectId", "100").param("from", "2023-02-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].empId").value(2))
+                .andExpect(jsonPath("$[0].projects[0].daysWorked").value(10));
+        mockMvc.perform(get("/api/datasets/ds1/pairs/2/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.daysWorked").value(16))
+                .andExpect(jsonPath("$.projects[1].projectId").value(200));
+        mockMvc.perform(get("/api/datasets/ds1/projects/100/overlaps").param("from", "2023-02-01").param("to", "2023-02-15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].empId2").value(3));
+    }
+
+    @Test
+    void testQueries_invalid() throws Exception {
+        doReturn(Optional.empty()).when(datasetService).pair("missing", 1, 2);
+
+        mockMvc.perform(get("/api/datasets/missing/pairs/1/2"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/datasets/ds1/pairs/1/1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/datasets/ds1/projects/100/overlaps").param("from", "2023-03-01").param("to", "2023-02-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
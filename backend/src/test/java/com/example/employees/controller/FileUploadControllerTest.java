@@ -1,7 +1,12 @@
 package com.example.employees.controller;
 
 import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.ProjectOverlap;
+import com.example.employees.model.TopPairResult;
 import com.example.employees.service.EmployeePairService;
+import com.example.employees.service.PairResults;
+import com.example.employees.service.ResultCache;
+import com.example.employees.service.SnapshotWriter;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,11 +17,23 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.security.MessageDigest;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -29,6 +46,9 @@ class FileUploadControllerTest {
     @Autowired
     private EmployeePairService employeePairService;
 
+    @Autowired
+    private ResultCache resultCache;
+
     @TestConfiguration
     static class MockServiceConfig {
         @Bean
@@ -61,6 +81,22 @@ class FileUploadControllerTest {
                 .andExpect(jsonPath("$[0].daysWorked").value(6));
     }
 
+    @Test
+    void testHandleFileUpload_cacheHit() throws Exception {
+        byte[] csv = """
+                EmpID,ProjectID,DateFrom,DateTo
+                7,700,2023-03-01,2023-03-10
+                8,700,2023-03-05,2023-03-15""".getBytes();
+        MockMultipartFile file = new MockMultipartFile("file", "cached.csv", "text/csv", csv);
+        resultCache.put(file, MessageDigest.getInstance("SHA-256").digest(csv), List.of(new EmployeePairResult(7, 8, 6)));
+
+        mockMvc.perform(multipart("/api/upload").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].empId1").value(7))
+                .andExpect(jsonPath("$[0].daysWorked").value(6));
+        verify(employeePairService, never()).processCSV(argThat((MultipartFile f) -> "cached.csv".equals(f.getOriginalFilename())));
+    }
+
     @Test
     void testHandleFileUpload_failure() throws Exception {
         // Arrange
@@ -83,4 +119,148 @@ class FileUploadControllerTest {
         mockMvc.perform(multipart("/api/upload").file(largeFile))
                 .andExpect(status().isPayloadTooLarge()); // HTTP 413
     }
+
+    @Test
+    void testHandleStreamUpload_success() throws Exception {
+        // Arrange
+        String csv = """
+                EmpID,ProjectID,DateFrom,DateTo
+                1,100,2023-01-01,2023-01-10
+                2,100,2023-01-05,2023-01-15""";
+
+        doReturn(List.of(new EmployeePairResult(1, 2, 6))).when(employeePairService).processCSVStream(any(), any());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/upload/stream").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].empId1").value(1))
+                .andExpect(jsonPath("$[0].daysWorked").value(6));
+    }
+
+    @Test
+    void testHandleStreamUpload_noComputationSlot() throws Exception {
+        doThrow(new RejectedExecutionException("full")).when(employeePairService).processCSVStream(any(), any());
+
+        mockMvc.perform(post("/api/upload/stream").contentType("text/csv").content("EmpID,ProjectID,DateFrom,DateTo\n"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void testHandleFileUpload_ndjson() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "ndjson.csv", "text/csv", "EmpID,ProjectID,DateFrom,DateTo\n1".getBytes());
+        when(employeePairService.processCSVPairs(any())).thenReturn(PairResults.of(List.of(
+                new EmployeePairResult(1, 2, 6), new EmployeePairResult(3, 4, 11))));
+
+        // Act
+        MvcResult started = mockMvc.perform(multipart("/api/upload").file(file).accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("""
+                        {"empId1":1,"empId2":2,"daysWorked":6}
+                        {"empId1":3,"empId2":4,"daysWorked":11}
+                        """));
+    }
+
+    @Test
+    void testHandleFileUpload_streamedJsonArray() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "array.csv", "text/csv", "EmpID,ProjectID,DateFrom,DateTo\n2".getBytes());
+        when(employeePairService.processCSVPairs(any())).thenReturn(PairResults.of(List.of(
+                new EmployeePairResult(1, 2, 6), new EmployeePairResult(3, 4, 11))));
+
+        // Act
+        MvcResult started = mockMvc.perform(multipart("/api/upload").file(file).param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[1].empId1").value(3))
+                .andExpect(jsonPath("$[1].daysWorked").value(11));
+    }
+
+    @Test
+    void testHandleFileUpload_wildcardAcceptStaysNonStreaming() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "plain.csv", "text/csv", "EmpID,ProjectID,DateFrom,DateTo\n3".getBytes());
+        when(employeePairService.processCSV(file)).thenReturn(List.of(new EmployeePairResult(1, 2, 6)));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/upload").file(file).accept(MediaType.ALL))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].daysWorked").value(6));
+    }
+
+    @Test
+    void testHandleTopUpload_success() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "EmpID,ProjectID,DateFrom,DateTo".getBytes());
+        when(employeePairService.processCSVTopK(file, 1, true)).thenReturn(List.of(
+                new TopPairResult(1, 2, 12, List.of(new ProjectOverlap(100, 6), new ProjectOverlap(101, 6)))));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/upload/top").file(file).param("k", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].daysWorked").value(12))
+                .andExpect(jsonPath("$[0].projects[1].projectId").value(101));
+    }
+
+    @Test
+    void testHandleTopUpload_invalidK() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", new byte[0]);
+
+        mockMvc.perform(multipart("/api/upload/top").file(file).param("k", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(multipart("/api/upload/top").file(file).param("k", "10001"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(multipart("/api/upload/top").file(file).param("k", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testHandleSnapshotExport_download() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "export.csv", "text/csv", "EmpID,ProjectID,DateFrom,DateTo\n4".getBytes());
+        SnapshotWriter snapshot = out -> out.write(new byte[]{'E', 'M', 'P', 'S'});
+        when(employeePairService.exportSnapshot(any())).thenReturn(snapshot);
+
+        // Act
+        MvcResult started = mockMvc.perform(multipart("/api/snapshot").file(file))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"assignments.snapshot\""))
+                .andExpect(content().bytes(new byte[]{'E', 'M', 'P', 'S'}));
+    }
+
+    @Test
+    void testHandleSnapshotUpload() throws Exception {
+        // Arrange
+        MockMultipartFile snapshot = new MockMultipartFile("file", "good.snapshot", "application/octet-stream", new byte[]{1});
+        MockMultipartFile corrupt = new MockMultipartFile("file", "corrupt.snapshot", "application/octet-stream", new byte[]{2});
+        when(employeePairService.processSnapshot(snapshot)).thenReturn(List.of(new EmployeePairResult(1, 2, 6)));
+        when(employeePairService.processSnapshot(corrupt)).thenThrow(new IllegalArgumentException("Corrupt snapshot: checksum mismatch"));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/upload/snapshot").file(snapshot))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].empId2").value(2))
+                .andExpect(jsonPath("$[0].daysWorked").value(6));
+        mockMvc.perform(multipart("/api/upload/snapshot").file(corrupt))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,94 @@
+package com.example.employees.controller;
+
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.JobPhase;
+import com.example.employees.model.JobStatus;
+import com.example.employees.service.JobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JobService jobService;
+
+    @TestConfiguration
+    static class MockServiceConfig {
+        @Bean
+        public JobService jobService() {
+            return Mockito.mock(JobService.class);
+        }
+    }
+
+    @BeforeEach
+    void resetMock() {
+        Mockito.reset(jobService);
+    }
+
+    @Test
+    void testSubmit_accepted() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "EmpID,ProjectID,DateFrom,DateTo".getBytes());
+        doReturn(new JobStatus("abc", JobPhase.QUEUED, 0, 0, null)).when(jobService).submit(any());
+
+        mockMvc.perform(multipart("/api/jobs").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/jobs/abc"))
+                .andExpect(jsonPath("$.id").value("abc"))
+                .andExpect(jsonPath("$.phase").value("QUEUED"));
+    }
+
+    @Test
+    void testSubmit_saturated() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", new byte[0]);
+        doThrow(new RejectedExecutionException("full")).when(jobService).submit(any());
+
+        mockMvc.perform(multipart("/api/jobs").file(file))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void testStatusAndResult() throws Exception {
+        when(jobService.status("running")).thenReturn(Optional.of(new JobStatus("running", JobPhase.OVERLAPPING, 1000, 72, null)));
+        when(jobService.status("done")).thenReturn(Optional.of(new JobStatus("done", JobPhase.DONE, 2, 100, null)));
+        when(jobService.result("done")).thenReturn(Optional.of(List.of(new EmployeePairResult(1, 2, 6))));
+        when(jobService.status("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/jobs/running"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phase").value("OVERLAPPING"))
+                .andExpect(jsonPath("$.rowsProcessed").value(1000))
+                .andExpect(jsonPath("$.percentComplete").value(72));
+        mockMvc.perform(get("/api/jobs/running/result"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/jobs/done/result"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].daysWorked").value(6));
+        mockMvc.perform(get("/api/jobs/missing"))
+                .andExpect(status().isNotFound());
+    }
+}
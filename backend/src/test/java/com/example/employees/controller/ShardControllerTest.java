@@ -0,0 +1,77 @@
+package com.example.employees.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * An instance that is its own only worker, with a single computation slot: the upload holds that slot
+ * while its shard is computed by the same instance.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT, properties = {
+        "compute.max-concurrent=1",
+        "compute.wait-seconds=2",
+        "distributed.min-rows=0",
+        "distributed.max-attempts=1",
+        "result-cache.enabled=false"})
+class ShardControllerTest {
+
+    private static final int PORT = freePort();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void selfAsWorker(DynamicPropertyRegistry registry) {
+        registry.add("server.port", () -> PORT);
+        registry.add("distributed.workers", () -> "http://localhost:" + PORT);
+    }
+
+    @Test
+    void testInstanceCanBeItsOwnWorkerWithOneComputationSlot() {
+        String csv = """
+                EmpID,ProjectID,DateFrom,DateTo
+                1,100,2023-01-01,2023-01-10
+                2,100,2023-01-05,2023-01-15
+                3,101,2023-02-01,2023-02-10
+                4,101,2023-02-01,2023-02-05""";
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add("file", new ByteArrayResource(csv.getBytes()) {
+            @Override
+            public String getFilename() {
+                return "test.csv";
+            }
+        });
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/upload", new HttpEntity<>(form, headers), String.class);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertTrue(response.getBody().contains("\"daysWorked\":6"), response.getBody());
+        assertTrue(response.getBody().contains("\"daysWorked\":5"), response.getBody());
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
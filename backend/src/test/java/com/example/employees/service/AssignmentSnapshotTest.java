@@ -0,0 +1,145 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssignmentSnapshotTest {
+
+    private static final String HEADER = "EmpID,ProjectID,DateFrom,DateTo\n";
+
+    @TempDir
+    Path dir;
+
+    private final EmployeePairService employeePairService = ServiceFixtures.service("sweep-line");
+
+    @Test
+    public void testRoundTripKeepsRowsPerProject() throws Exception {
+        Map<Integer, List<ProjectEntry>> projects = employeePairService.parseProjects(new StringReader(HEADER + """
+                1,300,2023-01-01,2023-01-10
+                2,100,2023-01-05,2023-01-15
+                3,300,2022-12-01,2023-02-20
+                4,200,2023-02-10,2023-02-25
+                """));
+
+        AssignmentSnapshot snapshot = AssignmentSnapshot.map(write(projects));
+
+        assertEquals(4, snapshot.rowCount());
+        assertEquals(3, snapshot.projectCount());
+        assertEquals(List.of(100, 200, 300),
+                List.of(snapshot.projectId(0), snapshot.projectId(1), snapshot.projectId(2)));
+        Map<Integer, List<ProjectEntry>> loaded = snapshot.toProjectMap();
+        assertEquals(projects.keySet(), loaded.keySet());
+        for (Integer projectId : projects.keySet()) {
+            assertEquals(describe(projects.get(projectId)), describe(loaded.get(projectId)));
+        }
+    }
+
+    @Test
+    public void testSnapshotResultsMatchCsv() throws Exception {
+        Random random = new Random(7);
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 500; i++) {
+            int from = random.nextInt(700);
+            csv.append(random.nextInt(60)).append(',').append(random.nextInt(25)).append(',')
+                    .append(LocalDate.of(2022, 1, 1).plusDays(from)).append(',')
+                    .append(LocalDate.of(2022, 1, 1).plusDays(from + random.nextInt(90))).append('\n');
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "random.csv", "text/csv", csv.toString().getBytes());
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        employeePairService.exportSnapshot(file).writeTo(snapshot);
+        List<EmployeePairResult> fromSnapshot = employeePairService.processSnapshot(
+                new MockMultipartFile("file", "random.snapshot", "application/octet-stream", snapshot.toByteArray()));
+
+        assertEquals(employeePairService.processCSV(file), fromSnapshot);
+    }
+
+    @Test
+    public void testCorruptSnapshotIsRejected() throws Exception {
+        Path file = write(employeePairService.parseProjects(new StringReader(HEADER + """
+                1,100,2023-01-01,2023-01-10
+                2,100,2023-01-05,2023-01-15
+                """)));
+        byte[] bytes = Files.readAllBytes(file);
+
+        byte[] flipped = bytes.clone();
+        flipped[bytes.length - 6] ^= 1;
+        IllegalArgumentException checksum = assertThrows(IllegalArgumentException.class,
+                () -> AssignmentSnapshot.map(Files.write(dir.resolve("flipped.snapshot"), flipped)));
+        assertTrue(checksum.getMessage().contains("checksum"));
+
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 4);
+        assertThrows(IllegalArgumentException.class,
+                () -> AssignmentSnapshot.map(Files.write(dir.resolve("truncated.snapshot"), truncated)));
+
+        byte[] newer = bytes.clone();
+        newer[7] = (byte) (AssignmentSnapshot.VERSION + 1);
+        IllegalArgumentException version = assertThrows(IllegalArgumentException.class,
+                () -> AssignmentSnapshot.map(Files.write(dir.resolve("newer.snapshot"), newer)));
+        assertTrue(version.getMessage().contains("version"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> AssignmentSnapshot.map(Files.write(dir.resolve("csv.snapshot"), (HEADER + "1,100,2023-01-01,\n").getBytes())));
+    }
+
+    @Test
+    public void testInconsistentIndexIsRejectedDespiteValidChecksum() throws Exception {
+        Path file = write(employeePairService.parseProjects(new StringReader(HEADER + """
+                1,100,2023-01-01,2023-01-10
+                2,100,2023-01-05,2023-01-15
+                3,101,2023-01-05,2023-01-15
+                """)));
+        byte[] bytes = Files.readAllBytes(file);
+        // Index entries (projectId, firstRow, rowCount) follow the 16-byte header
+        int first = 16;
+        int second = first + 12;
+
+        assertCorruptIndex(bytes, second + 8, -1);
+        assertCorruptIndex(bytes, second + 8, Integer.MAX_VALUE);
+        assertCorruptIndex(bytes, second + 4, 1);
+        assertCorruptIndex(bytes, second + 4, -5);
+        assertCorruptIndex(bytes, first + 8, 1);
+        assertCorruptIndex(bytes, second, 100);
+    }
+
+    private void assertCorruptIndex(byte[] snapshot, int offset, int value) throws Exception {
+        byte[] bytes = snapshot.clone();
+        ByteBuffer.wrap(bytes).putInt(offset, value);
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes, 0, bytes.length - 4);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - 4, (int) checksum.getValue());
+
+        IllegalArgumentException corrupt = assertThrows(IllegalArgumentException.class,
+                () -> AssignmentSnapshot.map(Files.write(dir.resolve("index.snapshot"), bytes)));
+        assertTrue(corrupt.getMessage().startsWith("Corrupt snapshot"), corrupt.getMessage());
+    }
+
+    private Path write(Map<Integer, List<ProjectEntry>> projects) throws Exception {
+        Path file = Files.createTempFile(dir, "assignments", ".snapshot");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            AssignmentSnapshot.write(projects, out);
+        }
+        return file;
+    }
+
+    private static List<String> describe(List<ProjectEntry> entries) {
+        return entries.stream().map(e -> e.empId + "@" + e.projectId + ":" + e.dateFrom + ".." + e.dateTo).toList();
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.employees.service;
+
+import com.example.employees.model.ColleagueResult;
+import com.example.employees.model.DatasetInfo;
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.ProjectOverlap;
+import com.example.employees.model.TopPairResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatasetServiceTest {
+
+    private static final String HEADER = "EmpID,ProjectID,DateFrom,DateTo\n";
+
+    @TempDir
+    Path datasetsDir;
+
+    private final EmployeePairService employeePairService = ServiceFixtures.service("sweep-line");
+
+    @Test
+    public void testDeltaMatchesFullRecomputeAndSingleUpload() throws Exception {
+        DatasetService datasets = new DatasetService(employeePairService, datasetsDir.toString(), 8);
+        String base = """
+                1,100,2023-01-01,2023-01-10
+                2,100,2023-01-05,2023-01-15
+                3,101,2023-02-01,2023-02-20
+                4,101,2023-02-10,2023-02-25
+                5,102,2023-03-01,2023-03-31
+                """;
+        // Overlaps old rows, other new rows, and opens a new project
+        String delta = """
+                6,100,2023-01-08,2023-01-20
+                7,100,2023-01-12,2023-01-14
+                4,102,2023-03-15,2023-04-10
+                8,103,2023-05-01,2023-05-05
+                9,103,2023-05-03,2023-05-09
+                """;
+
+        DatasetInfo created = datasets.create(csv(base));
+        DatasetInfo appended = datasets.appendRows(created.id, csv(delta)).orElseThrow();
+
+        assertEquals(10, appended.rows);
+        assertEquals(4, appended.projects);
+        assertEquals(3, appended.affectedProjects);
+        List<EmployeePairResult> incremental = datasets.pairs(created.id).orElseThrow();
+        assertEquals(employeePairService.processCSV(csv(base + delta)), incremental);
+
+        datasets.recompute(created.id).orElseThrow();
+        assertEquals(incremental, datasets.pairs(created.id).orElseThrow());
+    }
+
+    @Test
+    public void testRandomDeltasMatchFullComputation() throws Exception {
+        DatasetService datasets = new DatasetService(employeePairService, datasetsDir.toString(), 8);
+        Random random = new Random(42);
+        StringBuilder all = new StringBuilder();
+
+        String id = datasets.create(csv(randomRows(random, 300, all))).id;
+        for (int batch = 0; batch < 5; batch++) {
+            datasets.appendRows(id, csv(randomRows(random, 20, all))).orElseThrow();
+        }
+
+        List<EmployeePairResult> expected = employeePairService.toResults(
+                employeePairService.computePairTotals(employeePairService.parseProjects(new StringReader(HEADER + all))));
+        assertEquals(expected, datasets.pairs(id).orElseThrow());
+        datasets.recompute(id).orElseThrow();
+        assertEquals(expected, datasets.pairs(id).orElseThrow());
+    }
+
+    @Test
+    public void testDeltaOnlyRewritesAffectedProjects() throws Exception {
+        DatasetService datasets = new DatasetService(employeePairService, datasetsDir.toString(), 8);
+        String id = datasets.create(csv("1,100,2023-01-01,2023-01-10\n2,200,2023-01-01,2023-01-10\n")).id;
+        Path untouched = datasetsDir.resolve(id).resolve("projects").resolve("200-1.bin");
+        FileTime marker = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(untouched, marker);
+
+        datasets.appendRows(id, csv("3,100,2023-01-05,2023-01-06\n")).orElseThrow();
+
+        assertEquals(marker, Files.getLastModifiedTime(untouched));
+        assertEquals(List.of(new EmployeePairResult(1, 3, 2)), datasets.pairs(id).orElseThrow());
+    }
+
+    @Test
+    public void testFailedAppendLeavesRowsAndTotalsUnchanged() throws Exception {
+        DatasetService datasets = new DatasetService(employeePairService, datasetsDir.toString(), 8);
+        String base = "1,100,2023-01-01,2023-01-10\n2,200,2023-01-01,2023-01-10\n";
+        String delta = "3,100,2023-01-05,2023-01-06\n4,200,2023-01-02,2023-01-03\n";
+        String id = datasets.create(csv(base)).id;
+        // The totals of the next generation cannot be written, after the projects' rows have been
+        Path blocked = Files.createDirectory(datasetsDir.resolve(id).resolve("pairs-2.bin"));
+
+        assertThrows(Exception.class, () -> datasets.appendRows(id, csv(delta)));
+
+        DatasetInfo info = datasets.info(id).orElseThrow();
+        assertEquals(2, info.rows);
+        assertEquals(List.of(), datasets.pairs(id).orElseThrow());
+
+        Files.delete(blocked);
+        datasets.appendRows(id, csv(delta)).orElseThrow();
+        assertEquals(employeePairService.processCSV(csv(base + delta)), datasets.pairs(id).orElseThrow());
+        try (var files = Files.list(datasetsDir.resolve(id).resolve("projects"))) {
+            assertEquals(2, files.count(), "Files of superseded and failed generations should be removed");
+        }
+    }
+
+    @Test
+    public void testUnknownAndInvalidIds() throws Exception {
+        DatasetService datasets = new DatasetService(employeePairService, datasetsDir.toString(), 8);
+
+        assertTrue(datasets.appendRows("missing", csv("1,100,2023-01-01,2023-01-10\n")).isEmpty());
+        assertTrue(datasets.pairs("../outside").isEmpty());
+        assertFalse(datasets.delete("missing"));
+
+        String id = datasets.create(csv("1,100,2023-01-01,2023-01-10\n")).id;
+        assertTrue(datasets.delete(id));
+        assertTrue(datasets.info(id).isEmpty());
+    }
+
+    @Test
+    public void testAppendExtendingAStoredStint() throws Exception {
+        DatasetService datasets = new DatasetService(employeePairService, datasetsDir.toString(), 8);
+        String base = """
+                1,100,2023-01-01,2023-01-10
+                2,100,2023-01-01,2023-01-31
+                3,100,2023-01-09,2023-01-09
+                4,200,2023-01-01,2023-01-10
+                """;
+        // Overlaps employee 1's stored stint on 100, and is new on 200
+        String delta = """
+                1,100,2023-01-08,2023-01-20
+                1,200,2023-01-05,2023-01-06
+                """;
+
+        String id = datasets.create(csv(base)).id;
+        DatasetInfo appended = datasets.appendRows(id, csv(delta)).orElseThrow();
+
+        assertEquals(5, appended.rows);
+        assertEquals(employeePairService.processCSV(csv(base + delta)), datasets.pairs(id).orElseThrow());
+        assertEquals(20, datasets.pair(id, 1, 2).orElseThrow().daysWorked);
+    }
+
+    @Test
+    public void testQueriesAgreeWithPairTotals() throws Exception {
+        DatasetService datasets = new DatasetService(employeePairService, datasetsDir.toString(), 8);
+        Random random = new Random(3);
+        StringBuilder all = new StringBuilder();
+        String id = datasets.create(csv(randomRows(random, 400, all))).id;
+        List<EmployeePairResult> totals = datasets.pairs(id).orElseThrow();
+
+        for (EmployeePairResult total : totals) {
+            if (total.empId1 == total.empId2) {
+                continue;
+            }
+            TopPairResult pair = datasets.pair(id, total.empId2, total.empId1).orElseThrow();
+            assertEquals(total.daysWorked, pair.daysWorked);
+            assertEquals(total.daysWorked, pair.projects.stream().mapToLong(p -> p.daysWorked).sum());
+
+            ColleagueResult colleague = datasets.colleagues(id, total.empId1, null, null, null).orElseThrow().stream()
+                    .filter(c -> c.empId == total.empId2).findFirst().orElseThrow();
+            assertEquals(total.daysWorked, colleague.daysWorked);
+        }
+    }
+
+    @Test
+    public void testWindowQueries() throws Exception {
+        DatasetService datasets = new DatasetService(employeePairService, datasetsDir.toString(), 8);
+        String id = datasets.create(csv("""
+                1,100,2023-01-01,2023-03-31
+                2,100,2023-01-20,2023-02-10
+                3,100,2023-02-05,2023-02-28
+                4,100,2023-04-01,2023-04-30
+                2,200,2023-01-01,2023-01-31
+                """)).id;
+        LocalDate from = LocalDate.of(2023, 2, 1);
+        LocalDate to = LocalDate.of(2023, 2, 15);
+
+        assertEquals(List.of(new EmployeePairResult(1, 2, 10), new EmployeePairResult(1, 3, 11),
+                        new EmployeePairResult(2, 3, 6)),
+                datasets.overlapsWithin(id, 100, from, to).orElseThrow());
+        assertEquals(List.of(), datasets.overlapsWithin(id, 999, from, to).orElseThrow());
+
+        List<ColleagueResult> colleagues = datasets.colleagues(id, 2, 100, from, to).orElseThrow();
+        assertEquals(List.of(new ColleagueResult(1, 10, List.of(new ProjectOverlap(100, 10))),
+                new ColleagueResult(3, 6, List.of(new ProjectOverlap(100, 6)))), colleagues);
+
+        // Appended rows invalidate the cached index
+        datasets.appendRows(id, csv("5,100,2023-02-01,2023-02-02\n")).orElseThrow();
+        assertEquals(3, datasets.colleagues(id, 2, null, from, to).orElseThrow().size());
+        assertTrue(datasets.colleagues("missing", 2, null, null, null).isEmpty());
+    }
+
+    private static String randomRows(Random random, int count, StringBuilder all) {
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            LocalDate from = LocalDate.of(2023, 1, 1).plusDays(random.nextInt(60));
+            rows.append(random.nextInt(40)).append(',')
+                    .append(100 + random.nextInt(8)).append(',')
+                    .append(from).append(',')
+                    .append(from.plusDays(random.nextInt(20)))
+                    .append('\n');
+        }
+        all.append(rows);
+        return rows.toString();
+    }
+
+    private static MockMultipartFile csv(String rows) {
+        return new MockMultipartFile("file", "rows.csv", "text/csv", (HEADER + rows).getBytes());
+    }
+}
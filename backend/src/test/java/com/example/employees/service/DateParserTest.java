@@ -0,0 +1,119 @@
+package com.example.employees.service;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DateParserTest {
+
+    @Test
+    public void testCorpus() throws Exception {
+        DateParser parser = DateParser.legacyOrder();
+        int checked = 0;
+
+        try (Reader reader = new InputStreamReader(
+                Objects.requireNonNull(getClass().getResourceAsStream("/dates/date-corpus.csv")), StandardCharsets.UTF_8);
+             CSVParser corpus = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build().parse(reader)) {
+            for (CSVRecord record : corpus) {
+                String input = record.get("input");
+                String expected = record.get("expected");
+                int expectedEpochDay = expected.equals("INVALID")
+                        ? DateParser.INVALID
+                        : (int) LocalDate.parse(expected).toEpochDay();
+
+                assertEquals(expectedEpochDay, parser.parseEpochDay(input), record.get("note") + ": '" + input + "'");
+                assertEquals(expectedEpochDay, legacyParse(input), "corpus disagrees with the formatters: '" + input + "'");
+                checked++;
+            }
+        }
+        assertTrue(checked > 30);
+    }
+
+    @Test
+    public void testEveryAcceptedFormatMatchesFormatters() {
+        DateParser parser = DateParser.legacyOrder();
+        for (LocalDate date = LocalDate.of(1995, 1, 1); date.isBefore(LocalDate.of(2035, 1, 1)); date = date.plusDays(1)) {
+            for (DateParser.Format format : DateParser.Format.values()) {
+                String value = date.format(format.formatter);
+                assertEquals(legacyParse(value), parser.parseEpochDay(value), "Mismatch for '" + value + "'");
+            }
+        }
+    }
+
+    @Test
+    public void testRandomDateShapedInputMatchesFormatters() {
+        DateParser parser = DateParser.legacyOrder();
+        Random random = new Random(3);
+        String alphabet = "0123456789/- ";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = 8 + random.nextInt(5);
+            for (int j = 0; j < length; j++) {
+                value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertEquals(legacyParse(value.toString()), parser.parseEpochDay(value), "Mismatch for '" + value + "'");
+        }
+    }
+
+    @Test
+    public void testDetectionLocksOntoDominantSlashFormat() {
+        DateParser parser = new DateParser(4);
+        // Unambiguous day-first values
+        parser.parseEpochDay("15/03/2023");
+        parser.parseEpochDay("28/02/2023");
+        parser.parseEpochDay("13/01/2023");
+        assertFalse(parser.isLocked());
+        parser.parseEpochDay("31/12/2022");
+        assertTrue(parser.isLocked());
+
+        assertEquals(LocalDate.of(2021, 10, 5).toEpochDay(), parser.parseEpochDay("05/10/2021"));
+        // Values that only have one valid reading are unaffected by the lock
+        assertEquals(LocalDate.of(2023, 1, 25).toEpochDay(), parser.parseEpochDay("01/25/2023"));
+        assertEquals(LocalDate.of(2021, 5, 10).toEpochDay(), DateParser.legacyOrder().parseEpochDay("05/10/2021"));
+    }
+
+    @Test
+    public void testDetectionLocksOntoDominantDashFormat() {
+        DateParser parser = new DateParser(2);
+        parser.parseEpochDay("02-20-2023");
+        parser.parseEpochDay("12-31-2022");
+        assertTrue(parser.isLocked());
+
+        assertEquals(LocalDate.of(2021, 10, 5).toEpochDay(), parser.parseEpochDay("10-05-2021"));
+        assertEquals(LocalDate.of(2021, 5, 10).toEpochDay(), DateParser.legacyOrder().parseEpochDay("10-05-2021"));
+    }
+
+    @Test
+    public void testDetectionKeepsFormatterOrderWithoutEvidence() {
+        DateParser parser = new DateParser(2);
+        parser.parseEpochDay("2023-01-01");
+        parser.parseEpochDay("05/10/2021");
+        assertTrue(parser.isLocked());
+
+        assertEquals(LocalDate.of(2021, 5, 10).toEpochDay(), parser.parseEpochDay("05/10/2021"));
+        assertEquals(LocalDate.of(2021, 5, 10).toEpochDay(), parser.parseEpochDay("10-05-2021"));
+    }
+
+    /**
+     * The original implementation: try every formatter in order and let exceptions signal a mismatch.
+     */
+    private static int legacyParse(String dateStr) {
+        for (DateParser.Format format : DateParser.Format.values()) {
+            try {
+                return (int) LocalDate.parse(dateStr.trim(), format.formatter).toEpochDay();
+            } catch (Exception ignored) {}
+        }
+        return DateParser.INVALID;
+    }
+}
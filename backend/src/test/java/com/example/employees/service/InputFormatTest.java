@@ -0,0 +1,167 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputFormatTest {
+
+    private static final String CSV = """
+            EmpID,ProjectID,DateFrom,DateTo
+            1,100,2023-01-01,2023-03-31
+            2,100,2023-02-01,2023-02-28
+            3,101,2023-01-10,NULL
+            4,101,2023-01-15,2023-01-20""";
+
+    private static final List<EmployeePairResult> EXPECTED =
+            List.of(new EmployeePairResult(1, 2, 28), new EmployeePairResult(3, 4, 6));
+
+    private static final String SHARED_STRINGS = """
+            <sst xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" count="6" uniqueCount="6">
+            <si><t>EmpID</t></si><si><t>ProjectID</t></si><si><t>DateFrom</t></si><si><t>DateTo</t></si>
+            <si><r><t>2023-02</t></r><r><t>-28</t></r><rPh sb="0" eb="1"><t>x</t></rPh></si><si><t>NULL</t></si>
+            </sst>""";
+
+    private final EmployeePairService service = ServiceFixtures.service("sweep-line");
+
+    @Test
+    public void testDetectsFormatsFromTheirFirstBytes() throws Exception {
+        assertSame(InputFormat.CSV, InputFormat.detect(new ByteArrayInputStream(CSV.getBytes())));
+        assertSame(InputFormat.GZIP_CSV, InputFormat.detect(new ByteArrayInputStream(gzip(CSV))));
+        assertSame(InputFormat.XLSX, InputFormat.detect(new ByteArrayInputStream(xlsx(true))));
+        assertSame(InputFormat.CSV, InputFormat.detect(new ByteArrayInputStream(new byte[0])));
+
+        byte[] zstd = {0x28, (byte) 0xB5, 0x2F, (byte) 0xFD, 0};
+        assertThrows(IllegalArgumentException.class, () -> InputFormat.detect(new ByteArrayInputStream(zstd)));
+    }
+
+    @Test
+    public void testGzipUploadMatchesPlainCsv() throws Exception {
+        assertEquals(EXPECTED, service.processCSV(upload("plain.csv", CSV.getBytes())));
+        assertEquals(EXPECTED, service.processCSV(upload("assignments.csv.gz", gzip(CSV))));
+        assertEquals(EXPECTED, service.processCSVStream(new ByteArrayInputStream(gzip(CSV))));
+    }
+
+    @Test
+    public void testXlsxUploadMatchesPlainCsv() throws Exception {
+        // Shared strings stored before the worksheet, as LibreOffice does, and after it, as Excel does
+        assertEquals(EXPECTED, service.processCSV(upload("assignments.xlsx", xlsx(true))));
+        assertEquals(EXPECTED, service.processCSV(upload("assignments.xlsx", xlsx(false))));
+    }
+
+    @Test
+    public void testXlsxFirstSheetAndDateSystemComeFromTheWorkbook() throws Exception {
+        // The workbook is stored after its worksheets, lists sheet2.xml first and counts dates from 1904
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("xl/worksheets/sheet1.xml", """
+                <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main"><sheetData>
+                <row r="1"><c r="A1" t="inlineStr"><is><t>Notes</t></is></c></row>
+                </sheetData></worksheet>""");
+        entries.put("xl/worksheets/sheet2.xml", sheet(1462));
+        entries.put("xl/workbook.xml", workbook(true, "rId2", "rId1"));
+        entries.put("xl/_rels/workbook.xml.rels", relationships());
+        entries.put("xl/sharedStrings.xml", SHARED_STRINGS);
+
+        assertEquals(EXPECTED, service.processCSV(upload("assignments.xlsx", zip(entries))));
+    }
+
+    @Test
+    public void testRowBudgetAppliesToCompressedMultipartUploadsOnly() throws Exception {
+        ServiceFixtures.Settings settings = new ServiceFixtures.Settings();
+        settings.maxDecompressedRows = 3;
+        EmployeePairService limited = ServiceFixtures.service(settings);
+
+        assertEquals(EXPECTED, limited.processCSV(upload("plain.csv", CSV.getBytes())));
+        assertThrows(IllegalArgumentException.class, () -> limited.processCSV(upload("big.csv.gz", gzip(CSV))));
+        assertThrows(IllegalArgumentException.class, () -> limited.processCSV(upload("big.xlsx", xlsx(false))));
+        // The streaming endpoint is for exports of any size, compressed or not
+        assertEquals(EXPECTED, limited.processCSVStream(new ByteArrayInputStream(gzip(CSV))));
+    }
+
+    private static MockMultipartFile upload(String name, byte[] content) {
+        return new MockMultipartFile("file", name, "application/octet-stream", content);
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    // The rows of CSV as a workbook: numeric ids, serial and shared-string dates, an inline-string date and a blank row
+    private static byte[] xlsx(boolean sharedStringsFirst) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("[Content_Types].xml", "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\"/>");
+        entries.put("xl/workbook.xml", workbook(false, "rId1"));
+        entries.put("xl/_rels/workbook.xml.rels", relationships());
+        if (sharedStringsFirst) {
+            entries.put("xl/sharedStrings.xml", SHARED_STRINGS);
+        }
+        entries.put("xl/worksheets/sheet1.xml", sheet(0));
+        entries.put("xl/styles.xml", "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"/>");
+        if (!sharedStringsFirst) {
+            entries.put("xl/sharedStrings.xml", SHARED_STRINGS);
+        }
+        return zip(entries);
+    }
+
+    // Serial dates are lowered by serialOffset, 1462 for the 1904 date system
+    private static String sheet(int serialOffset) {
+        return """
+                <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main"><sheetData>
+                <row r="1"><c r="A1" t="s"><v>0</v></c><c r="B1" t="s"><v>1</v></c><c r="C1" t="s"><v>2</v></c><c r="D1" t="s"><v>3</v></c></row>
+                <row r="2"><c r="A2"><v>1</v></c><c r="B2"><v>100</v></c><c r="C2" s="1"><v>%d</v></c><c r="D2" s="1"><v>%d</v></c></row>
+                <row r="3"><c r="A3"><v>2</v></c><c r="B3"><v>100.0</v></c><c r="C3" t="d"><v>2023-02-01T00:00:00</v></c><c r="D3" t="s"><v>4</v></c></row>
+                <row r="4"></row>
+                <row r="5"><c r="A5"><v>3</v></c><c r="B5"><v>101</v></c><c r="C5" t="inlineStr"><is><t>2023-01-10</t></is></c><c r="D5" t="s"><v>5</v></c></row>
+                <row r="6"><c r="A6"><v>4</v></c><c r="B6"><v>101</v></c><c r="C6"><v>%d</v></c><c r="D6"><v>%d.75</v></c></row>
+                </sheetData></worksheet>""".formatted(
+                44927 - serialOffset, 45016 - serialOffset, 44941 - serialOffset, 44946 - serialOffset);
+    }
+
+    private static String workbook(boolean date1904, String... sheetIds) {
+        StringBuilder sheets = new StringBuilder();
+        for (int i = 0; i < sheetIds.length; i++) {
+            sheets.append("<sheet name=\"Sheet").append(i + 1).append("\" sheetId=\"").append(i + 1)
+                    .append("\" r:id=\"").append(sheetIds[i]).append("\"/>");
+        }
+        return "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\""
+                + " xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+                + "<workbookPr date1904=\"" + date1904 + "\"/><sheets>" + sheets + "</sheets></workbook>";
+    }
+
+    private static String relationships() {
+        String type = "http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet";
+        return "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + type + "\" Target=\"worksheets/sheet1.xml\"/>"
+                + "<Relationship Id=\"rId2\" Type=\"" + type + "\" Target=\"/xl/worksheets/sheet2.xml\"/>"
+                + "</Relationships>";
+    }
+
+    private static byte[] zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.JobPhase;
+import com.example.employees.model.JobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JobServiceTest {
+
+    private static final String CSV = """
+            EmpID,ProjectID,DateFrom,DateTo
+            1,100,2023-01-01,2023-01-10
+            2,100,2023-01-05,2023-01-15
+            3,101,2023-02-01,2023-02-20
+            4,101,2023-02-10,2023-02-25""";
+
+    private JobService jobService;
+
+    @AfterEach
+    public void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    public void testJobRunsToCompletionWithProgress() throws Exception {
+        jobService = new JobService(ServiceFixtures.service("sweep-line"), 1, 1, 30);
+
+        JobStatus submitted = jobService.submit(csvFile());
+        JobStatus finished = awaitPhase(submitted.id, JobPhase.DONE);
+
+        assertEquals(4, finished.rowsProcessed);
+        assertEquals(100, finished.percentComplete);
+        List<EmployeePairResult> result = jobService.result(submitted.id).orElseThrow();
+        assertEquals(List.of(new EmployeePairResult(1, 2, 6), new EmployeePairResult(3, 4, 11)), result);
+    }
+
+    @Test
+    public void testFailedJobReportsError() throws Exception {
+        jobService = new JobService(ServiceFixtures.service("sweep-line"), 1, 1, 30);
+        MockMultipartFile broken = new MockMultipartFile("file", "broken.csv", "text/csv",
+                "EmpID,ProjectID,DateFrom,DateTo\nx,100,2023-01-01,2023-01-10".getBytes());
+
+        JobStatus failed = awaitPhase(jobService.submit(broken).id, JobPhase.FAILED);
+
+        assertNotNull(failed.error);
+        assertTrue(jobService.result(failed.id).isEmpty());
+    }
+
+    @Test
+    public void testSaturatedExecutorRejectsJobs() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        EmployeePairService blocking = Mockito.mock(EmployeePairService.class);
+        when(blocking.processCSV(any(InputStream.class), any(ProgressListener.class))).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        });
+        jobService = new JobService(blocking, 1, 1, 30);
+
+        JobStatus running = jobService.submit(csvFile());
+        awaitPhase(running.id, JobPhase.QUEUED, Duration.ofMillis(200));
+        jobService.submit(csvFile());
+
+        MultipartFile rejected = Mockito.mock(MultipartFile.class);
+        assertThrows(RejectedExecutionException.class, () -> jobService.submit(rejected));
+        verify(rejected, never()).transferTo(any(Path.class));
+        release.countDown();
+        awaitPhase(running.id, JobPhase.DONE);
+    }
+
+    @Test
+    public void testFinishedJobsFreeTheirSlots() throws Exception {
+        jobService = new JobService(ServiceFixtures.service("sweep-line"), 1, 0, 30);
+
+        // With a single slot, every later job is only accepted if the one before gave its slot back
+        for (int i = 0; i < 3; i++) {
+            awaitPhase(submitOnceFree().id, JobPhase.DONE);
+        }
+    }
+
+    @Test
+    public void testFinishedJobsExpireAfterTtl() throws Exception {
+        jobService = new JobService(ServiceFixtures.service("sweep-line"), 1, 1, 0);
+
+        String id = jobService.submit(csvFile()).id;
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (jobService.status(id).isPresent() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            jobService.evictExpired();
+        }
+
+        assertTrue(jobService.status(id).isEmpty(), "Finished job should be evicted once its TTL has passed");
+    }
+
+    private JobStatus submitOnceFree() throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (true) {
+            try {
+                return jobService.submit(csvFile());
+            } catch (RejectedExecutionException e) {
+                // The worker frees its slot just after publishing the previous result
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static MockMultipartFile csvFile() {
+        return new MockMultipartFile("file", "jobs.csv", "text/csv", CSV.getBytes());
+    }
+
+    private JobStatus awaitPhase(String id, JobPhase phase) throws InterruptedException {
+        return awaitPhase(id, phase, Duration.ofSeconds(10));
+    }
+
+    private JobStatus awaitPhase(String id, JobPhase phase, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        JobStatus status = jobService.status(id).orElseThrow();
+        while (status.phase != phase && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = jobService.status(id).orElseThrow();
+        }
+        if (phase != JobPhase.QUEUED) {
+            assertEquals(phase, status.phase);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverlapEngineTest {
+
+    private final EmployeePairService nestedLoopService = ServiceFixtures.service("nested-loop");
+    private final EmployeePairService sweepLineService = ServiceFixtures.service("sweep-line");
+
+    @Test
+    public void testSweepLineMatchesNestedLoop_onRandomizedInputs() throws Exception {
+        for (long seed = 1; seed <= 25; seed++) {
+            String csv = randomCsv(new Random(seed), 400, 40, 12);
+            MockMultipartFile file = new MockMultipartFile("file", "random.csv", "text/csv", csv.getBytes());
+
+            Set<EmployeePairResult> expected = new HashSet<>(nestedLoopService.processCSV(file));
+            Set<EmployeePairResult> actual = new HashSet<>(sweepLineService.processCSV(file));
+
+            assertEquals(expected, actual, "Engines disagree for seed " + seed);
+        }
+    }
+
+    @Test
+    public void testSweepLineSkipsNonOverlappingEntries() {
+        int start = (int) LocalDate.of(2023, 1, 1).toEpochDay();
+        List<ProjectEntry> participants = new ArrayList<>();
+        // 100 back-to-back assignments, none of them overlapping
+        for (int i = 0; i < 100; i++) {
+            participants.add(new ProjectEntry(i, 1, start + i * 2, start + i * 2));
+        }
+
+        PairTable totals = new PairTable();
+        long comparisons = new SweepLineOverlapEngine().accumulate(participants, totals);
+
+        assertTrue(totals.isEmpty());
+        assertEquals(0, comparisons, "Sweep line should not compare entries that already ended");
+    }
+
+    @Test
+    public void testMultiMonthAndMultiYearOverlapsCountEveryDay() throws Exception {
+        String csv = """
+                EmpID,ProjectID,DateFrom,DateTo
+                1,100,2023-01-15,2023-03-20
+                2,100,2023-02-01,2023-04-30
+                3,101,2019-06-01,2023-06-30
+                4,101,2020-01-01,2022-12-31
+                5,102,2023-12-31,2024-03-01
+                6,102,2024-01-31,2024-02-29""";
+        MockMultipartFile file = new MockMultipartFile("file", "long.csv", "text/csv", csv.getBytes());
+
+        // 1 Feb - 20 Mar 2023, all of 2020 (leap) to 2022, 31 Jan - 29 Feb 2024
+        Set<EmployeePairResult> expected = Set.of(new EmployeePairResult(1, 2, 48),
+                new EmployeePairResult(3, 4, 1096), new EmployeePairResult(5, 6, 30));
+        assertEquals(expected, new HashSet<>(nestedLoopService.processCSV(file)));
+        assertEquals(expected, new HashSet<>(sweepLineService.processCSV(file)));
+    }
+
+    @Test
+    public void testOverlapDaysMatchesCalendarArithmetic() {
+        Random random = new Random(5);
+        LocalDate base = LocalDate.of(1995, 1, 1);
+        for (int i = 0; i < 2000; i++) {
+            LocalDate from1 = base.plusDays(random.nextInt(10000));
+            LocalDate to1 = from1.plusDays(random.nextInt(3000));
+            LocalDate from2 = base.plusDays(random.nextInt(10000));
+            LocalDate to2 = from2.plusDays(random.nextInt(3000));
+            LocalDate start = from1.isAfter(from2) ? from1 : from2;
+            LocalDate end = to1.isBefore(to2) ? to1 : to2;
+            long expected = start.isAfter(end) ? 0 : ChronoUnit.DAYS.between(start, end) + 1;
+
+            ProjectEntry first = new ProjectEntry(1, 1, (int) from1.toEpochDay(), (int) to1.toEpochDay());
+            ProjectEntry second = new ProjectEntry(2, 1, (int) from2.toEpochDay(), (int) to2.toEpochDay());
+            assertEquals(expected, first.overlapDays(second), from1 + ".." + to1 + " vs " + from2 + ".." + to2);
+            assertEquals(expected, second.overlapDays(first));
+        }
+    }
+
+    @Test
+    public void testUnknownEngineIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> OverlapEngine.named("bogus"));
+    }
+
+    private static String randomCsv(Random random, int rows, int employees, int projects) {
+        StringBuilder csv = new StringBuilder("EmpID,ProjectID,DateFrom,DateTo\n");
+        LocalDate base = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            LocalDate from = base.plusDays(random.nextInt(900));
+            LocalDate to = from.plusDays(random.nextInt(120));
+            csv.append(1 + random.nextInt(employees)).append(',')
+                    .append(100 + random.nextInt(projects)).append(',')
+                    .append(from).append(',')
+                    .append(random.nextInt(20) == 0 ? "NULL" : to.toString())
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.employees.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PairTableTest {
+
+    @Test
+    public void testAddIsOrderInsensitive() {
+        PairTable table = new PairTable();
+        table.add(1, 2, 5);
+        table.add(2, 1, 7);
+
+        assertEquals(1, table.size());
+        assertEquals(12, table.get(1, 2));
+        assertEquals(12, table.get(2, 1));
+        assertEquals(0, table.get(1, 3));
+    }
+
+    @Test
+    public void testMatchesHashMapAcrossResizes() {
+        Random random = new Random(42);
+        PairTable table = new PairTable(4);
+        Map<List<Integer>, Long> expected = new HashMap<>();
+        long initialFootprint = table.memoryUsageBytes();
+
+        for (int i = 0; i < 50_000; i++) {
+            int a = random.nextInt(500) - 50;
+            int b = random.nextInt(500) - 50;
+            long days = 1 + random.nextInt(30);
+            table.add(a, b, days);
+            expected.merge(List.of(Math.min(a, b), Math.max(a, b)), days, Long::sum);
+        }
+
+        assertEquals(expected.size(), table.size());
+        expected.forEach((pair, days) -> assertEquals(days, table.get(pair.get(0), pair.get(1))));
+        assertTrue(table.memoryUsageBytes() > initialFootprint);
+    }
+
+    @Test
+    public void testZeroPairIsStored() {
+        PairTable table = new PairTable();
+        table.add(0, 0, 3);
+        table.add(0, 0, 4);
+        table.add(0, 1, 1);
+
+        assertEquals(2, table.size());
+        assertEquals(7, table.get(0, 0));
+    }
+
+    @Test
+    public void testForEachOrderedSortsByEmployeeIds() {
+        PairTable table = new PairTable();
+        table.add(5, 3, 1);
+        table.add(-2, 7, 1);
+        table.add(1, -4, 1);
+        table.add(3, 4, 1);
+        table.add(0, 0, 1);
+
+        List<String> visited = new ArrayList<>();
+        table.forEachOrdered((empId1, empId2, days) -> visited.add(empId1 + "&" + empId2));
+
+        assertEquals(List.of("-4&1", "-2&7", "0&0", "3&4", "3&5"), visited);
+    }
+
+    @Test
+    public void testMergeFromSumsSharedPairs() {
+        PairTable left = new PairTable();
+        left.add(1, 2, 3);
+        left.add(0, 0, 1);
+        PairTable right = new PairTable();
+        right.add(2, 1, 4);
+        right.add(3, 4, 5);
+        right.add(0, 0, 2);
+
+        left.mergeFrom(right);
+
+        assertEquals(3, left.size());
+        assertEquals(7, left.get(1, 2));
+        assertEquals(5, left.get(3, 4));
+        assertEquals(3, left.get(0, 0));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelOverlapTest {
+
+    private final EmployeePairService sequentialService = ServiceFixtures.service("sweep-line");
+    // A tiny split size forces large projects to be cut into many sub-ranges
+    private final EmployeePairService parallelSweepService = ServiceFixtures.parallel("sweep-line", 4, 16);
+    private final EmployeePairService parallelNestedService = ServiceFixtures.parallel("nested-loop", 4, 16);
+
+    @AfterEach
+    public void tearDown() {
+        parallelSweepService.shutdown();
+        parallelNestedService.shutdown();
+    }
+
+    @Test
+    public void testParallelMatchesSequential_onRandomizedInputs() throws Exception {
+        for (long seed = 1; seed <= 10; seed++) {
+            // Few projects with many rows each plus a long tail of small ones
+            String csv = randomCsv(new Random(seed), 3_000);
+            MockMultipartFile file = new MockMultipartFile("file", "random.csv", "text/csv", csv.getBytes());
+
+            Set<EmployeePairResult> expected = new HashSet<>(sequentialService.processCSV(file));
+
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, new HashSet<>(parallelSweepService.processCSV(file)), "Sweep line differs for seed " + seed);
+            assertEquals(expected, new HashSet<>(parallelNestedService.processCSV(file)), "Nested loop differs for seed " + seed);
+        }
+    }
+
+    @Test
+    public void testParallelHandlesEmptyInput() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "empty.csv", "text/csv",
+                "EmpID,ProjectID,DateFrom,DateTo\n".getBytes());
+
+        assertTrue(parallelSweepService.processCSV(file).isEmpty());
+    }
+
+    private static String randomCsv(Random random, int rows) {
+        StringBuilder csv = new StringBuilder("EmpID,ProjectID,DateFrom,DateTo\n");
+        LocalDate base = LocalDate.of(2022, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            int projectId = random.nextBoolean() ? 1 + random.nextInt(3) : 10 + random.nextInt(200);
+            LocalDate from = base.plusDays(random.nextInt(500));
+            csv.append(1 + random.nextInt(300)).append(',')
+                    .append(projectId).append(',')
+                    .append(from).append(',')
+                    .append(from.plusDays(random.nextInt(90)))
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+}
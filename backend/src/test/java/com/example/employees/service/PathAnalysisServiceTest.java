@@ -0,0 +1,182 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathAnalysisServiceTest {
+
+    @TempDir
+    Path allowedDir;
+
+    private final List<PathAnalysisService> services = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        services.forEach(PathAnalysisService::shutdown);
+    }
+
+    @Test
+    public void testMappedChunksMatchProcessCSV() throws Exception {
+        EmployeePairService employeePairService = ServiceFixtures.service("sweep-line");
+        String csv = randomCsv(new Random(3), 3_000, "\n");
+
+        assertSameAsUpload(employeePairService, csv, 64);
+        assertSameAsUpload(employeePairService, csv, 1 << 20);
+        assertEquals(csv.lines().filter(line -> !line.isEmpty()).count() - 1, tokenizedRows(csv, 64),
+                "Plain files should be tokenized without falling back");
+    }
+
+    @Test
+    public void testCrlfLineEndsMatchProcessCSV() throws Exception {
+        assertSameAsUpload(ServiceFixtures.service("sweep-line"), randomCsv(new Random(4), 1_000, "\r\n"), 128);
+    }
+
+    @Test
+    public void testQuotedFieldsAndOtherHeadersFallBack() throws Exception {
+        EmployeePairService employeePairService = ServiceFixtures.service("sweep-line");
+        String quoted = """
+                EmpID,ProjectID,DateFrom,DateTo
+                1,100,"2023-01-01",2023-01-10
+                2,100,2023-01-05,"2023-01-15"
+                """;
+        String reordered = """
+                ProjectID,EmpID,DateTo,DateFrom
+                100,1,2023-01-10,2023-01-01
+                100,2,2023-01-15,2023-01-05
+                """;
+
+        assertEquals(-1, tokenizedRows(quoted, 16));
+        assertEquals(-1, tokenizedRows(reordered, 16));
+        assertSameAsUpload(employeePairService, quoted, 16);
+        assertSameAsUpload(employeePairService, reordered, 16);
+        assertEquals(List.of(new EmployeePairResult(1, 2, 6)), analyze(employeePairService, reordered, 16));
+    }
+
+    @Test
+    public void testDateDetectionSeesRowsInFileOrder() throws Exception {
+        ServiceFixtures.Settings settings = new ServiceFixtures.Settings();
+        settings.dateDetectionEnabled = true;
+        settings.dateDetectionSampleRows = 50;
+        EmployeePairService detecting = ServiceFixtures.service(settings);
+        StringBuilder csv = new StringBuilder("EmpID,ProjectID,DateFrom,DateTo\n");
+        for (int i = 0; i < 200; i++) {
+            // Unambiguous day-first slashes lock the format, then ambiguous values follow
+            String from = i < 60 ? "25/01/2023" : "05/02/2023";
+            csv.append(i % 20).append(",100,").append(from).append(",28/02/2023\n");
+        }
+
+        assertSameAsUpload(detecting, csv.toString(), 256);
+    }
+
+    @Test
+    public void testInvalidNumbersFailLikeProcessCSV() throws Exception {
+        EmployeePairService employeePairService = ServiceFixtures.service("sweep-line");
+        String csv = "EmpID,ProjectID,DateFrom,DateTo\n1,100,2023-01-01,2023-01-10\n 2,100,2023-01-05,2023-01-15\n";
+
+        assertThrows(NumberFormatException.class, () -> employeePairService.processCSV(upload(csv)));
+        assertThrows(NumberFormatException.class, () -> analyze(employeePairService, csv, 16));
+    }
+
+    @Test
+    public void testPathsOutsideTheAllowedDirectoryAreRejected() throws Exception {
+        PathAnalysisService service = service(ServiceFixtures.service("sweep-line"), allowedDir.toString(), 1024);
+        Path outside = Files.createTempFile("outside-", ".csv");
+        try {
+            // Existing and missing files outside the directory fail alike, as do missing ones inside it
+            assertThrows(NoSuchFileException.class, () -> service.resolve("../" + outside.getFileName()));
+            assertThrows(NoSuchFileException.class, () -> service.resolve("../missing-" + outside.getFileName()));
+            assertThrows(NoSuchFileException.class, () -> service.resolve(outside.toString()));
+            assertThrows(NoSuchFileException.class, () -> service.resolve("missing.csv"));
+
+            Path link = allowedDir.resolve("link.csv");
+            Files.createSymbolicLink(link, outside);
+            assertThrows(NoSuchFileException.class, () -> service.resolve("link.csv"));
+        } finally {
+            Files.deleteIfExists(outside);
+        }
+
+        PathAnalysisService disabled = service(ServiceFixtures.service("sweep-line"), "", 1024);
+        assertThrows(AccessDeniedException.class, () -> disabled.resolve("export.csv"));
+    }
+
+    // Valid plus skipped rows seen by the mapped tokenizer, -1 when it needs the general parser
+    private long tokenizedRows(String csv, long chunkBytes) throws IOException {
+        Path file = Files.writeString(allowedDir.resolve("tokenized.csv"), csv);
+        try (FileChannel channel = FileChannel.open(file)) {
+            MappedCsvTokenizer tokenizer = new MappedCsvTokenizer(channel, 0);
+            long dataStart = tokenizer.dataStart();
+            if (dataStart < 0) {
+                return -1;
+            }
+            long rows = 0;
+            for (long[] range : tokenizer.split(dataStart, chunkBytes)) {
+                MappedCsvTokenizer.Chunk chunk = tokenizer.tokenize(range[0], range[1], DateParser.legacyOrder(), new AtomicBoolean());
+                if (chunk == null) {
+                    return -1;
+                }
+                rows += chunk.validRows + chunk.skippedRows;
+            }
+            return rows;
+        }
+    }
+
+    private void assertSameAsUpload(EmployeePairService employeePairService, String csv, long chunkBytes) throws Exception {
+        assertEquals(employeePairService.processCSV(upload(csv)), analyze(employeePairService, csv, chunkBytes));
+    }
+
+    private List<EmployeePairResult> analyze(EmployeePairService employeePairService, String csv, long chunkBytes) throws Exception {
+        Files.writeString(allowedDir.resolve("export.csv"), csv);
+        return service(employeePairService, allowedDir.toString(), chunkBytes).analyze("export.csv");
+    }
+
+    private PathAnalysisService service(EmployeePairService employeePairService, String dir, long chunkBytes) {
+        PathAnalysisService service = new PathAnalysisService(employeePairService, dir, 4, chunkBytes);
+        services.add(service);
+        return service;
+    }
+
+    private static MockMultipartFile upload(String csv) {
+        return new MockMultipartFile("file", "export.csv", "text/csv", csv.getBytes());
+    }
+
+    // Mixed date formats, open and invalid end dates, and blank lines
+    private static String randomCsv(Random random, int rows, String lineEnd) {
+        String[] formats = {"%1$tY-%1$tm-%1$td", "%1$tm/%1$td/%1$tY", "%1$td-%1$tm-%1$tY", " %1$tY-%1$tm-%1$td "};
+        StringBuilder csv = new StringBuilder("EmpID,ProjectID,DateFrom,DateTo").append(lineEnd);
+        for (int i = 0; i < rows; i++) {
+            LocalDate from = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(1_000));
+            LocalDate to = from.plusDays(random.nextInt(25));
+            String dateTo = switch (random.nextInt(20)) {
+                case 0 -> "NULL";
+                case 1 -> "";
+                case 2 -> "not-a-date";
+                default -> String.format(formats[random.nextInt(formats.length)], to);
+            };
+            csv.append(random.nextInt(200)).append(',')
+                    .append(random.nextInt(30)).append(',')
+                    .append(String.format(formats[random.nextInt(formats.length)], from)).append(',')
+                    .append(dateTo).append(lineEnd);
+            if (random.nextInt(50) == 0) {
+                csv.append(lineEnd);
+            }
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.employees.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipelineMetricsTest {
+
+    private static final String CSV = """
+            EmpID,ProjectID,DateFrom,DateTo
+            1,100,2023-01-01,2023-01-10
+            2,100,2023-01-05,2023-01-15
+            3,100,2023-01-08,2023-01-20
+            4,101,2023-02-01,2023-02-20
+            5,101,not-a-date,2023-02-25""";
+
+    @Test
+    public void testUploadRecordsPhaseTimersCountersAndSummaries() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ServiceFixtures.Settings settings = new ServiceFixtures.Settings();
+        settings.overlapEngine = "nested-loop";
+        settings.meterRegistry = registry;
+        EmployeePairService service = ServiceFixtures.service(settings);
+
+        service.processCSV(new MockMultipartFile("file", "metrics.csv", "text/csv", CSV.getBytes()));
+
+        for (String phase : new String[]{"parse", "overlap", "aggregate"}) {
+            assertEquals(1, registry.get("employees.pipeline.phase").tag("phase", phase).timer().count(), phase);
+        }
+        assertEquals(4, registry.get("employees.rows.parsed").counter().count());
+        assertEquals(1, registry.get("employees.rows.skipped").counter().count());
+        // Nested loop compares all 3 pairs of project 100; project 101 has a single valid row
+        assertEquals(3, registry.get("employees.overlap.comparisons").counter().count());
+        assertEquals(3, registry.get("employees.pairs.emitted").counter().count());
+        assertEquals(2, registry.get("employees.project.size").summary().count());
+        assertEquals(4, registry.get("employees.project.size").summary().totalAmount());
+        assertEquals(CSV.length(), registry.get("employees.upload.size").summary().totalAmount());
+    }
+
+    @Test
+    public void testStreamingUploadRecordsItsSize() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ServiceFixtures.Settings settings = new ServiceFixtures.Settings();
+        settings.meterRegistry = registry;
+        EmployeePairService service = ServiceFixtures.service(settings);
+
+        service.processCSVStream(new ByteArrayInputStream(CSV.getBytes()));
+
+        assertEquals(CSV.length(), registry.get("employees.upload.size").summary().totalAmount());
+        assertEquals(2, registry.get("employees.project.size").summary().count());
+        assertEquals(3, registry.get("employees.pairs.emitted").counter().count());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.employees.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectIntervalIndexTest {
+
+    private static final int BASE = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+
+    @Test
+    public void testOverlappingMatchesLinearScan() {
+        Random random = new Random(11);
+        // Sizes around powers of two exercise missing right subtrees
+        for (int size : new int[]{0, 1, 2, 3, 7, 8, 9, 15, 16, 17, 100, 255, 256, 257, 1000}) {
+            List<ProjectEntry> rows = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int from = BASE + random.nextInt(2000);
+                int length = random.nextInt(10) == 0 ? random.nextInt(1500) : random.nextInt(60);
+                rows.add(new ProjectEntry(i, 1, from, from + length));
+            }
+            rows.sort(DatasetStore.BY_DATE_FROM);
+            ProjectIntervalIndex index = new ProjectIntervalIndex(rows);
+
+            for (int query = 0; query < 200; query++) {
+                int from = BASE - 50 + random.nextInt(2200);
+                int to = from + random.nextInt(query % 2 == 0 ? 5 : 400);
+
+                TreeSet<Integer> expected = new TreeSet<>();
+                for (int i = 0; i < rows.size(); i++) {
+                    if (rows.get(i).dateFrom <= to && rows.get(i).dateTo >= from) {
+                        expected.add(i);
+                    }
+                }
+                TreeSet<Integer> actual = new TreeSet<>();
+                index.overlapping(from, to, i -> assertTrue(actual.add(i), "row " + i + " reported twice"));
+                assertEquals(expected, actual, "size " + size + ", query [" + from + ", " + to + "]");
+            }
+        }
+    }
+
+    @Test
+    public void testSingleDayBoundaries() {
+        List<ProjectEntry> rows = List.of(
+                new ProjectEntry(1, 1, BASE, BASE + 9),
+                new ProjectEntry(2, 1, BASE + 10, BASE + 10),
+                new ProjectEntry(3, 1, BASE + 11, BASE + 20));
+        ProjectIntervalIndex index = new ProjectIntervalIndex(rows);
+        int day = BASE + 10;
+
+        List<Integer> hits = new ArrayList<>();
+        index.overlapping(day, day, hits::add);
+        assertEquals(List.of(1), hits);
+
+        hits.clear();
+        index.overlapping(day - 1, day + 1, hits::add);
+        assertEquals(3, hits.size());
+    }
+}
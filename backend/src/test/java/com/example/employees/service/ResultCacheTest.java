@@ -0,0 +1,162 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheTest {
+
+    private static final String CSV = """
+            EmpID,ProjectID,DateFrom,DateTo
+            1,100,2023-01-01,2023-01-10
+            2,100,2023-01-05,2023-01-15
+            3,101,2023-02-01,NULL
+            4,101,2023-02-10,2023-02-25""";
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    public void testProcessedUploadIsServedFromCache() throws Exception {
+        ResultCache cache = cache(8, 1024 * 1024);
+        EmployeePairService service = ServiceFixtures.cached(cache);
+
+        assertTrue(cache.lookup(file(CSV)).isEmpty());
+        List<EmployeePairResult> computed = service.processCSV(file(CSV));
+
+        assertEquals(computed, cache.lookup(file(CSV)).orElseThrow());
+        assertEquals(new ResultCache.Stats(1, 1, 0, 1, cache.stats().memoryBytes()), cache.stats());
+    }
+
+    @Test
+    public void testStreamedResultsAreCachedWhenTheyFit() throws Exception {
+        ResultCache cache = cache(8, 1024 * 1024);
+        EmployeePairService service = ServiceFixtures.cached(cache);
+
+        PairResults streamed = service.processCSVPairs(file(CSV));
+
+        assertEquals(service.processCSV(file(CSV).getInputStream(), ProgressListener.NONE), cache.lookup(file(CSV)).orElseThrow());
+        assertEquals(2, streamed.size());
+
+        ResultCache tiny = cache(8, 64);
+        assertFalse(tiny.admits(2));
+        ServiceFixtures.cached(tiny).processCSVPairs(file(CSV));
+        assertEquals(0, tiny.stats().entries());
+    }
+
+    @Test
+    public void testSameProbeButDifferentContentMisses() throws Exception {
+        ResultCache cache = cache(8, 1024 * 1024);
+        String padding = "9,999,2020-01-01,2020-01-02\n".repeat(400);
+        String original = "EmpID,ProjectID,DateFrom,DateTo\n" + padding + "1,100,2023-01-01,2023-01-10\n" + padding;
+        String changed = original.replace("1,100,2023-01-01,2023-01-10", "1,100,2023-01-01,2023-01-11");
+        assertEquals(original.length(), changed.length());
+
+        cache.put(file(original), sha256(original), List.of(new EmployeePairResult(1, 2, 3)));
+
+        assertTrue(cache.lookup(file(changed)).isEmpty());
+        assertTrue(cache.lookup(file(original)).isPresent());
+    }
+
+    @Test
+    public void testEntriesExpireAfterTtl() throws Exception {
+        ResultCache cache = cache(8, 1024 * 1024);
+        cache.put(file(CSV), sha256(CSV), List.of(new EmployeePairResult(1, 2, 6)));
+
+        clock.advance(Duration.ofMinutes(59));
+        assertTrue(cache.lookup(file(CSV)).isPresent());
+        clock.advance(Duration.ofMinutes(2));
+        assertTrue(cache.lookup(file(CSV)).isEmpty());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    public void testEntriesAreKeyedByDay() throws Exception {
+        clock.now = Instant.parse("2024-03-10T23:00:00Z");
+        ResultCache cache = cache(8, 1024 * 1024);
+        cache.put(file(CSV), sha256(CSV), List.of(new EmployeePairResult(1, 2, 6)));
+
+        // Open-ended assignments grow by a day at midnight
+        clock.advance(Duration.ofHours(1));
+        assertTrue(cache.lookup(file(CSV)).isEmpty());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() throws Exception {
+        ResultCache cache = cache(2, 1024 * 1024);
+        String a = CSV + "\n";
+        String b = CSV + "\n\n";
+        String c = CSV + "\n\n\n";
+        cache.put(file(a), sha256(a), List.of());
+        cache.put(file(b), sha256(b), List.of());
+        assertTrue(cache.lookup(file(a)).isPresent());
+
+        cache.put(file(c), sha256(c), List.of());
+
+        assertTrue(cache.lookup(file(a)).isPresent());
+        assertTrue(cache.lookup(file(b)).isEmpty());
+        assertTrue(cache.lookup(file(c)).isPresent());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    public void testMemoryLimitBoundsTheCache() throws Exception {
+        ResultCache cache = cache(100, 2_000);
+        List<EmployeePairResult> large = Collections.nCopies(40, new EmployeePairResult(1, 2, 3));
+        String a = CSV + "\n";
+        String b = CSV + "\n\n";
+
+        cache.put(file(a), sha256(a), large);
+        cache.put(file(b), sha256(b), large);
+        assertEquals(1, cache.stats().entries());
+        assertTrue(cache.stats().memoryBytes() <= 2_000);
+
+        String huge = CSV + "\n\n\n";
+        cache.put(file(huge), sha256(huge), Collections.nCopies(100, new EmployeePairResult(1, 2, 3)));
+        assertTrue(cache.lookup(file(huge)).isEmpty(), "Results larger than the whole cache are not stored");
+    }
+
+    private ResultCache cache(int maxEntries, long maxBytes) {
+        return new ResultCache(true, maxEntries, maxBytes, Duration.ofMinutes(60), clock);
+    }
+
+    private static MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", "export.csv", "text/csv", content.getBytes());
+    }
+
+    private static byte[] sha256(String content) {
+        return ResultCache.newDigest().digest(content.getBytes());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-03-10T09:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.employees.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Builds {@link EmployeePairService} instances outside Spring. Tests name the settings they change on a
+ * {@link Settings}, so the positional constructor is only called in {@link #service(Settings)}.
+ */
+final class ServiceFixtures {
+
+    private ServiceFixtures() {
+    }
+
+    /**
+     * The constructor's settings and collaborators, with the defaults of application.properties.
+     */
+    static final class Settings {
+        String overlapEngine = "sweep-line";
+        int streamingHeapBudgetMb = 64;
+        String spillDir = "";
+        boolean parallelEnabled = false;
+        int parallelThreads = 0;
+        int parallelSplitSize = 4096;
+        boolean dateDetectionEnabled = false;
+        int dateDetectionSampleRows = 1000;
+        boolean mergeStints = true;
+        long maxDecompressedRows = 5_000_000;
+        ResultCache resultCache = ResultCache.disabled();
+        ShardCoordinator shardCoordinator = ShardCoordinator.disabled();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    }
+
+    static EmployeePairService service(String overlapEngine) {
+        Settings settings = new Settings();
+        settings.overlapEngine = overlapEngine;
+        return service(settings);
+    }
+
+    static EmployeePairService legacyStints(String overlapEngine) {
+        Settings settings = new Settings();
+        settings.overlapEngine = overlapEngine;
+        settings.mergeStints = false;
+        return service(settings);
+    }
+
+    static EmployeePairService streaming(int heapBudgetMb, String spillDir) {
+        Settings settings = new Settings();
+        settings.streamingHeapBudgetMb = heapBudgetMb;
+        settings.spillDir = spillDir;
+        return service(settings);
+    }
+
+    static EmployeePairService parallel(String overlapEngine, int threads, int splitSize) {
+        Settings settings = new Settings();
+        settings.overlapEngine = overlapEngine;
+        settings.parallelEnabled = true;
+        settings.parallelThreads = threads;
+        settings.parallelSplitSize = splitSize;
+        return service(settings);
+    }
+
+    static EmployeePairService cached(ResultCache resultCache) {
+        Settings settings = new Settings();
+        settings.resultCache = resultCache;
+        return service(settings);
+    }
+
+    static EmployeePairService distributed(ShardCoordinator shardCoordinator, boolean mergeStints) {
+        Settings settings = new Settings();
+        settings.shardCoordinator = shardCoordinator;
+        settings.mergeStints = mergeStints;
+        return service(settings);
+    }
+
+    static EmployeePairService service(Settings settings) {
+        return new EmployeePairService(settings.overlapEngine, settings.streamingHeapBudgetMb, settings.spillDir,
+                settings.parallelEnabled, settings.parallelThreads, settings.parallelSplitSize,
+                settings.dateDetectionEnabled, settings.dateDetectionSampleRows, settings.mergeStints,
+                settings.maxDecompressedRows, settings.resultCache, settings.shardCoordinator, settings.meterRegistry);
+    }
+}
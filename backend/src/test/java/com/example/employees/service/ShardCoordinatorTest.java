@@ -0,0 +1,106 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the coordinator against this test's own server as the worker, next to a worker that is down.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ShardCoordinatorTest {
+
+    // Nothing listens on port 1, so connections are refused right away
+    private static final String DEAD_WORKER = "http://localhost:1";
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void testDistributedResultsMatchSingleNode() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        String worker = "http://localhost:" + port;
+        // Two shards per live worker; the dead one's shard is retried on the next worker
+        ShardCoordinator coordinator = new ShardCoordinator(worker + "," + DEAD_WORKER + "," + worker + "/", 0, 3, 60, registry);
+        EmployeePairService distributed = ServiceFixtures.distributed(coordinator, true);
+        EmployeePairService local = ServiceFixtures.service("sweep-line");
+
+        for (long seed = 1; seed <= 3; seed++) {
+            MockMultipartFile file = new MockMultipartFile("file", "random.csv", "text/csv", randomCsv(new Random(seed)).getBytes());
+            assertEquals(local.processCSV(file), distributed.processCSV(file), "seed " + seed);
+        }
+        assertEquals(3, registry.get("employees.shards").tag("outcome", "failed").counter().count());
+        assertEquals(9, registry.get("employees.shards").tag("outcome", "completed").counter().count());
+    }
+
+    @Test
+    public void testWorkersPairShardsAsTheCoordinatorMergedThem() throws Exception {
+        // This test's server merges stints (the default), the coordinator does not
+        ShardCoordinator coordinator = new ShardCoordinator("http://localhost:" + port, 0, 1, 60, new SimpleMeterRegistry());
+        EmployeePairService distributed = ServiceFixtures.distributed(coordinator, false);
+        MockMultipartFile file = new MockMultipartFile("file", "random.csv", "text/csv", randomCsv(new Random(4)).getBytes());
+
+        List<EmployeePairResult> legacy = ServiceFixtures.legacyStints("sweep-line").processCSV(file);
+        assertNotEquals(ServiceFixtures.service("sweep-line").processCSV(file), legacy, "input needs overlapping stints");
+        assertEquals(legacy, distributed.processCSV(file));
+    }
+
+    @Test
+    public void testFailsWhenEveryAttemptFails() {
+        ShardCoordinator coordinator = new ShardCoordinator(DEAD_WORKER, 0, 2, 60, new SimpleMeterRegistry());
+        EmployeePairService distributed = ServiceFixtures.distributed(coordinator, true);
+        MockMultipartFile file = new MockMultipartFile("file", "random.csv", "text/csv", randomCsv(new Random(1)).getBytes());
+
+        assertThrows(IOException.class, () -> distributed.processCSV(file));
+    }
+
+    @Test
+    public void testSmallInputsStayLocal() {
+        ShardCoordinator coordinator = new ShardCoordinator(DEAD_WORKER, 1000, 1, 60, new SimpleMeterRegistry());
+        ProjectEntry row = new ProjectEntry(1, 100, 0, 10);
+
+        assertFalse(coordinator.handles(Map.of(100, List.of(row, row))));
+        assertFalse(ShardCoordinator.disabled().handles(Map.of(100, List.of(row, row))));
+    }
+
+    @Test
+    public void testPartitionKeepsEveryProjectInOneShard() {
+        Map<Integer, List<ProjectEntry>> projectMap = new HashMap<>();
+        for (int projectId = 0; projectId < 1000; projectId++) {
+            projectMap.put(projectId, List.of(new ProjectEntry(1, projectId, 0, 1)));
+        }
+
+        List<Map<Integer, List<ProjectEntry>>> shards = ShardCoordinator.partition(projectMap, 4);
+
+        assertEquals(1000, shards.stream().mapToInt(Map::size).sum());
+        for (Map<Integer, List<ProjectEntry>> shard : shards) {
+            assertTrue(shard.size() > 200, "unbalanced shard of " + shard.size() + " projects");
+        }
+    }
+
+    private static String randomCsv(Random random) {
+        StringBuilder csv = new StringBuilder("EmpID,ProjectID,DateFrom,DateTo\n");
+        LocalDate base = LocalDate.of(2018, 1, 1);
+        for (int i = 0; i < 3000; i++) {
+            LocalDate from = base.plusDays(random.nextInt(1500));
+            csv.append(1 + random.nextInt(300)).append(',')
+                    .append(100 + random.nextInt(60)).append(',')
+                    .append(from).append(',')
+                    .append(random.nextInt(30) == 0 ? "NULL" : from.plusDays(random.nextInt(400)).toString())
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+}
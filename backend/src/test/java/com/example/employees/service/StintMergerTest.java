@@ -0,0 +1,80 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StintMergerTest {
+
+    // Employee 1 is listed three times for project 100, twice for overlapping days and once right after
+    private static final String CSV = """
+            EmpID,ProjectID,DateFrom,DateTo
+            1,100,2023-01-01,2023-01-10
+            1,100,2023-01-05,2023-01-12
+            1,100,2023-01-13,2023-01-15
+            2,100,2023-01-08,2023-01-20
+            1,200,2023-01-01,2023-01-05
+            1,200,2023-01-10,2023-01-12
+            3,200,2023-01-01,2023-01-31""";
+
+    @Test
+    public void testMergeJoinsOverlappingAndAdjacentRowsOnly() {
+        List<ProjectEntry> merged = StintMerger.merge(List.of(
+                entry(1, "2023-01-01", "2023-01-10"),
+                entry(2, "2023-01-03", "2023-01-04"),
+                entry(1, "2023-01-11", "2023-01-11"),
+                entry(1, "2023-01-05", "2023-01-06"),
+                entry(1, "2023-01-13", "2023-01-20"),
+                entry(1, "2023-02-10", "2023-02-01")));
+
+        assertEquals(List.of("1:2023-01-01..2023-01-11", "1:2023-01-13..2023-01-20", "1:2023-02-10..2023-02-01",
+                "2:2023-01-03..2023-01-04"), merged.stream().map(StintMergerTest::describe).sorted().toList());
+
+        List<ProjectEntry> distinct = List.of(entry(1, "2023-01-01", "2023-01-10"), entry(1, "2023-01-12", "2023-01-20"));
+        assertSame(distinct, StintMerger.merge(distinct));
+    }
+
+    @Test
+    public void testMergedStintsAreNotCountedTwice() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ServiceFixtures.Settings settings = new ServiceFixtures.Settings();
+        settings.meterRegistry = registry;
+        EmployeePairService merging = ServiceFixtures.service(settings);
+
+        // 1 and 2 share 2023-01-08..15 once; 1 and 3 share 5 + 3 days on project 200
+        assertEquals(List.of(new EmployeePairResult(1, 2, 8), new EmployeePairResult(1, 3, 8)),
+                merging.processCSV(upload()));
+        assertEquals(2, registry.get("employees.rows.merged").counter().count());
+        // Same with the streaming ingestion
+        assertEquals(List.of(new EmployeePairResult(1, 2, 8), new EmployeePairResult(1, 3, 8)),
+                merging.processCSVStream(new ByteArrayInputStream(CSV.getBytes())));
+    }
+
+    @Test
+    public void testLegacyModeCountsEveryRow() throws Exception {
+        EmployeePairService legacy = ServiceFixtures.legacyStints("sweep-line");
+
+        // 1/2: 3 + 5 + 3 days from the three rows; the overlapping rows of 1 also pair 1 with itself
+        assertEquals(List.of(new EmployeePairResult(1, 1, 6), new EmployeePairResult(1, 2, 11),
+                new EmployeePairResult(1, 3, 8)), legacy.processCSV(upload()));
+    }
+
+    private static MockMultipartFile upload() {
+        return new MockMultipartFile("file", "stints.csv", "text/csv", CSV.getBytes());
+    }
+
+    private static ProjectEntry entry(int empId, String from, String to) {
+        return new ProjectEntry(empId, 100, (int) LocalDate.parse(from).toEpochDay(), (int) LocalDate.parse(to).toEpochDay());
+    }
+
+    private static String describe(ProjectEntry entry) {
+        return entry.empId + ":" + LocalDate.ofEpochDay(entry.dateFrom) + ".." + LocalDate.ofEpochDay(entry.dateTo);
+    }
+}
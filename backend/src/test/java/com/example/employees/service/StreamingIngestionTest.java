@@ -0,0 +1,184 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingIngestionTest {
+
+    @TempDir
+    Path spillDir;
+
+    @Test
+    public void testStreamingMatchesInMemory_withinHeapBudget() throws Exception {
+        EmployeePairService service = ServiceFixtures.streaming(64, spillDir.toString());
+        byte[] csv = randomCsv(new Random(7), 2_000).getBytes();
+
+        assertSameResults(service, csv);
+    }
+
+    @Test
+    public void testStreamingMatchesInMemory_whenSpillingToDisk() throws Exception {
+        // A zero budget forces a spill after every row
+        EmployeePairService service = ServiceFixtures.streaming(0, spillDir.toString());
+        byte[] csv = randomCsv(new Random(11), 2_000).getBytes();
+
+        assertSameResults(service, csv);
+        assertTrue(isEmpty(spillDir), "Spill files should be removed after processing");
+    }
+
+    @Test
+    public void testPairResultsStreamTheInMemoryResultsInOrder() throws Exception {
+        EmployeePairService service = ServiceFixtures.service("sweep-line");
+        MockMultipartFile file = new MockMultipartFile("file", "pairs.csv", "text/csv", randomCsv(new Random(5), 2_000).getBytes());
+
+        List<EmployeePairResult> streamed = new ArrayList<>();
+        PairResults pairs = service.processCSVPairs(file);
+        pairs.forEachOrdered((empId1, empId2, days) -> streamed.add(new EmployeePairResult(empId1, empId2, days)));
+
+        assertEquals(service.processCSV(file), streamed);
+        assertEquals(streamed.size(), pairs.size());
+    }
+
+    @Test
+    public void testAssignmentStoreSpillsAndMergesPartitions() throws Exception {
+        try (AssignmentStore store = new AssignmentStore(256, spillDir)) {
+            for (int i = 0; i < 500; i++) {
+                store.add(i % 7, i, i, i + 10);
+            }
+            assertTrue(store.spillCount() > 0);
+            assertEquals(500, store.rowCount());
+
+            int[] seen = new int[1];
+            store.forEachProject((projectId, participants) -> {
+                assertTrue(participants.stream().allMatch(pe -> pe.projectId == projectId));
+                seen[0] += participants.size();
+            });
+            assertEquals(500, seen[0]);
+        }
+    }
+
+    @Test
+    public void testSpilledBucketsAreReadBackWithinTheHeapBudget() throws Exception {
+        long budget = 16 * 1024;
+        try (AssignmentStore store = new AssignmentStore(budget, spillDir)) {
+            // About 2,000 rows per bucket, far more than the budget holds
+            for (int i = 0; i < 128_000; i++) {
+                store.add(i % 5_000, i, i, i + 10);
+            }
+            assertTrue(store.spillCount() > 0);
+
+            Set<Integer> projects = new HashSet<>();
+            int[] seen = new int[1];
+            store.forEachProject((projectId, participants) -> {
+                assertTrue(projects.add(projectId), "Project " + projectId + " handed over twice");
+                seen[0] += participants.size();
+            });
+            assertEquals(5_000, projects.size());
+            assertEquals(128_000, seen[0]);
+            assertTrue(store.peakReadBackBytes() > 0);
+            assertTrue(store.peakReadBackBytes() <= budget, "Read back " + store.peakReadBackBytes() + " bytes at once");
+        }
+        assertTrue(isEmpty(spillDir), "Spill files should be removed after processing");
+    }
+
+    @Test
+    public void testComputationSlotIsTakenOnceTheBodyHasBeenRead() throws Exception {
+        EmployeePairService service = ServiceFixtures.streaming(64, spillDir.toString());
+        byte[] csv = randomCsv(new Random(3), 500).getBytes();
+        ByteArrayInputStream body = new ByteArrayInputStream(csv);
+        List<String> calls = new ArrayList<>();
+        ComputeGate gate = new ComputeGate() {
+            @Override
+            public boolean enter() {
+                calls.add("enter with " + body.available() + " bytes unread");
+                return true;
+            }
+
+            @Override
+            public void exit() {
+                calls.add("exit");
+            }
+
+            @Override
+            public Duration maxWait() {
+                return Duration.ZERO;
+            }
+        };
+
+        assertEquals(new HashSet<>(service.processCSVStream(new ByteArrayInputStream(csv))),
+                new HashSet<>(service.processCSVStream(body, gate)));
+        assertEquals(List.of("enter with 0 bytes unread", "exit"), calls);
+    }
+
+    @Test
+    public void testStreamWithoutAComputationSlotIsRejected() throws Exception {
+        EmployeePairService service = ServiceFixtures.streaming(0, spillDir.toString());
+        ComputeGate full = new ComputeGate() {
+            @Override
+            public boolean enter() {
+                return false;
+            }
+
+            @Override
+            public void exit() {
+                fail("A slot that was not taken must not be given back");
+            }
+
+            @Override
+            public Duration maxWait() {
+                return Duration.ZERO;
+            }
+        };
+
+        byte[] csv = randomCsv(new Random(4), 200).getBytes();
+        assertThrows(RejectedExecutionException.class, () -> service.processCSVStream(new ByteArrayInputStream(csv), full));
+        assertTrue(isEmpty(spillDir), "Spill files should be removed after a rejected stream");
+    }
+
+    private static void assertSameResults(EmployeePairService service, byte[] csv) throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "random.csv", "text/csv", csv);
+        Set<EmployeePairResult> expected = new HashSet<>(service.processCSV(file));
+        Set<EmployeePairResult> actual = new HashSet<>(service.processCSVStream(new ByteArrayInputStream(csv)));
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    private static boolean isEmpty(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.findAny().isEmpty();
+        }
+    }
+
+    private static String randomCsv(Random random, int rows) {
+        StringBuilder csv = new StringBuilder("EmpID,ProjectID,DateFrom,DateTo\n");
+        LocalDate base = LocalDate.of(2021, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            LocalDate from = base.plusDays(random.nextInt(700));
+            csv.append(1 + random.nextInt(150)).append(',')
+                    .append(1 + random.nextInt(90)).append(',')
+                    .append(from).append(',')
+                    .append(from.plusDays(random.nextInt(200)))
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.employees.service;
+
+import com.example.employees.model.EmployeePairResult;
+import com.example.employees.model.ProjectOverlap;
+import com.example.employees.model.TopPairResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopPairsTest {
+
+    private final EmployeePairService service = ServiceFixtures.service("sweep-line");
+
+    @Test
+    public void testTopKMatchesFullResult_withAndWithoutPruning() throws Exception {
+        for (long seed = 1; seed <= 8; seed++) {
+            MockMultipartFile file = new MockMultipartFile("file", "random.csv", "text/csv",
+                    randomCsv(new Random(seed), 1_500).getBytes());
+
+            List<EmployeePairResult> all = service.processCSV(file);
+            all.sort(Comparator.comparingLong((EmployeePairResult r) -> -r.daysWorked)
+                    .thenComparingInt(r -> r.empId1)
+                    .thenComparingInt(r -> r.empId2));
+
+            for (int k : new int[]{1, 5, 50}) {
+                List<TopPairResult> pruned = service.processCSVTopK(file, k, true);
+                List<TopPairResult> unpruned = service.processCSVTopK(file, k, false);
+
+                assertEquals(unpruned, pruned, "Pruning changed the result for seed " + seed + ", k=" + k);
+                assertEquals(Math.min(k, all.size()), pruned.size());
+                for (int i = 0; i < pruned.size(); i++) {
+                    TopPairResult top = pruned.get(i);
+                    EmployeePairResult expected = all.get(i);
+                    assertEquals(expected.empId1, top.empId1);
+                    assertEquals(expected.empId2, top.empId2);
+                    assertEquals(expected.daysWorked, top.daysWorked);
+                    assertEquals(top.daysWorked, top.projects.stream().mapToLong(p -> p.daysWorked).sum(),
+                            "Project breakdown should add up to the pair total");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBestSizesItsHeapByThePairsPresent() {
+        PairTable totals = new PairTable();
+        totals.add(1, 2, 10);
+        totals.add(1, 3, 30);
+        totals.add(2, 3, 20);
+
+        List<TopPairs.Ranked> best = TopPairs.best(totals, Integer.MAX_VALUE);
+
+        assertEquals(List.of(30L, 20L, 10L), best.stream().map(TopPairs.Ranked::days).toList());
+        assertTrue(TopPairs.best(new PairTable(), Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testTopPairCarriesProjectBreakdown() throws Exception {
+        String csv = """
+                EmpID,ProjectID,DateFrom,DateTo
+                1,100,2023-01-01,2023-01-10
+                2,100,2023-01-05,2023-01-15
+                1,101,2023-02-01,2023-02-10
+                2,101,2023-02-05,2023-02-20
+                3,102,2023-03-01,2023-03-03
+                4,102,2023-03-01,2023-03-03""";
+        MockMultipartFile file = new MockMultipartFile("file", "top.csv", "text/csv", csv.getBytes());
+
+        List<TopPairResult> top = service.processCSVTopK(file, 1, true);
+
+        assertEquals(1, top.size());
+        assertEquals(new TopPairResult(1, 2, 12,
+                List.of(new ProjectOverlap(100, 6), new ProjectOverlap(101, 6))), top.get(0));
+    }
+
+    @Test
+    public void testUpperBoundsCoverDuplicateStints() {
+        int start = (int) LocalDate.of(2023, 1, 1).toEpochDay();
+        List<ProjectEntry> participants = List.of(
+                new ProjectEntry(1, 7, start, start + 9),
+                new ProjectEntry(2, 7, start, start + 9),
+                new ProjectEntry(2, 7, start, start + 9));
+
+        PairTable totals = new PairTable();
+        new NestedLoopOverlapEngine().accumulate(participants, totals);
+        Map<Integer, Long> bounds = TopPairs.employeeUpperBounds(Map.of(7, participants));
+
+        // Employee 1 overlaps both of employee 2's stints: 20 days against a 10-day assignment
+        assertEquals(20, totals.get(1, 2));
+        assertTrue(bounds.get(1) >= totals.get(1, 2));
+        assertTrue(bounds.get(2) >= totals.get(2, 2));
+    }
+
+    private static String randomCsv(Random random, int rows) {
+        StringBuilder csv = new StringBuilder("EmpID,ProjectID,DateFrom,DateTo\n");
+        LocalDate base = LocalDate.of(2021, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            LocalDate from = base.plusDays(random.nextInt(600));
+            csv.append(1 + random.nextInt(200)).append(',')
+                    .append(1 + random.nextInt(60)).append(',')
+                    .append(from).append(',')
+                    .append(from.plusDays(random.nextInt(25)))
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+}
@@ -1,5 +1,4 @@
-import { Component } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { ChangeDetectorRef, Component, NgZone } from '@angular/core';
 import { EmployeePairResult } from '../models/employee-pair-result';
 import {CommonModule} from '@angular/common';
 import {environment} from '../../environments/environment';
@@ -19,7 +18,7 @@ export class UploadAndTableComponent {
 
   private baseUrl = environment.apiBaseUrl;
 
-  constructor(private http: HttpClient) {}
+  constructor(private zone: NgZone, private changeDetector: ChangeDetectorRef) {}
 
   onFileSelected(event: Event) {
     const input = event.target as HTMLInputElement;
@@ -27,7 +26,7 @@ export class UploadAndTableComponent {
     this.error = null;
   }
 
-  upload() {
+  async upload() {
     if (!this.selectedFile) {
       return;
     }
@@ -37,15 +36,61 @@ export class UploadAndTableComponent {
     const formData = new FormData();
     formData.append('file', this.selectedFile);
 
-    this.http.post<EmployeePairResult[]>(`${this.baseUrl}/api/upload`, formData).subscribe({
-      next: (data) => {
-        this.rows = data;
-        this.loading = false;
-      },
-      error: (err) => {
-        this.error = 'Failed to upload file';
-        this.loading = false;
-      },
-    });
+    this.rows = [];
+
+    // NDJSON read with fetch rather than HttpClient: progress events carry all the text received so far,
+    // while a stream reader hands over each chunk once
+    try {
+      const response = await fetch(`${this.baseUrl}/api/upload`, {
+        method: 'POST',
+        body: formData,
+        headers: { Accept: 'application/x-ndjson' },
+      });
+      if (!response.ok || !response.body) {
+        throw new Error('Upload failed');
+      }
+      const body = response.body;
+      await this.zone.runOutsideAngular(() => this.readRows(body));
+    } catch (err) {
+      this.error = 'Failed to upload file';
+    } finally {
+      this.loading = false;
+    }
+  }
+
+  /**
+   * Appends the rows of an NDJSON body to the table as their lines complete. Only the incomplete last line
+   * is carried over between chunks, and the table is checked for changes at most once per frame.
+   */
+  private async readRows(body: ReadableStream<Uint8Array>) {
+    const reader = body.getReader();
+    const decoder = new TextDecoder();
+    let pending = '';
+    let frame = 0;
+    const render = () => {
+      frame = 0;
+      this.changeDetector.detectChanges();
+    };
+
+    for (;;) {
+      const { done, value } = await reader.read();
+      pending += decoder.decode(value, { stream: !done });
+
+      const lines = pending.split('\n');
+      // The last element is an incomplete line, or empty when the chunk ended on a newline
+      pending = done ? '' : lines.pop() ?? '';
+      for (const line of lines) {
+        if (line.trim() !== '') {
+          this.rows.push(JSON.parse(line) as EmployeePairResult);
+        }
+      }
+      if (done) {
+        cancelAnimationFrame(frame);
+        return;
+      }
+      if (frame === 0) {
+        frame = requestAnimationFrame(render);
+      }
+    }
   }
 }
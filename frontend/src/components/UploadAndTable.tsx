@@ -1,4 +1,4 @@
-import { useState } from "react";
+import { memo, useState } from "react";
 
 interface EmployeePairResult {
     empId1: number;
@@ -9,7 +9,8 @@ interface EmployeePairResult {
 
 export default function UploadAndTable() {
     const [file, setFile] = useState<File | null>(null);
-    const [rows, setRows] = useState<EmployeePairResult[]>([]);
+    // Rows in the batches they arrived in, so a frame only adds one batch to render
+    const [batches, setBatches] = useState<EmployeePairResult[][]>([]);
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState<string | null>(null);
 
@@ -29,17 +30,39 @@ export default function UploadAndTable() {
 
         try {
             const baseUrl = import.meta.env.VITE_API_BASE_URL;
+            // Ask for NDJSON so rows can be rendered while the response is still arriving
             const response = await fetch(`${baseUrl}/api/upload`, {
                 method: "POST",
                 body: formData,
+                headers: { Accept: "application/x-ndjson" },
             });
 
-            if (!response.ok) {
+            if (!response.ok || !response.body) {
                 throw new Error("Upload failed");
             }
 
-            const data: EmployeePairResult[] = await response.json();
-            setRows(data);
+            // Rows arriving within one frame are collected into a batch that is added to the table on the next frame;
+            // batches already shown are not copied or rendered again
+            let pending: EmployeePairResult[] = [];
+            let frame = 0;
+            const render = () => {
+                frame = 0;
+                if (pending.length === 0) return;
+                const batch = pending;
+                pending = [];
+                setBatches((shown) => [...shown, batch]);
+            };
+            setBatches([]);
+            await readNdjson(response.body, (batch) => {
+                for (const row of batch) {
+                    pending.push(row);
+                }
+                if (frame === 0) {
+                    frame = requestAnimationFrame(render);
+                }
+            });
+            cancelAnimationFrame(frame);
+            render();
         } catch (err) {
             console.error("Upload error", err);
             setError("Failed to upload file");
@@ -58,7 +81,7 @@ export default function UploadAndTable() {
 
             {error && <p style={{ color: "red" }}>{error}</p>}
 
-            {rows.length > 0 && (
+            {batches.length > 0 && (
                 <table style={{ width: "100%", marginTop: "1rem", borderCollapse: "collapse" }}>
                     <thead>
                     <tr>
@@ -68,12 +91,8 @@ export default function UploadAndTable() {
                     </tr>
                     </thead>
                     <tbody>
-                    {rows.map((row, i) => (
-                        <tr key={i}>
-                            <td style={td}>{row.empId1}</td>
-                            <td style={td}>{row.empId2}</td>
-                            <td style={td}>{row.daysWorked}</td>
-                        </tr>
+                    {batches.map((batch, i) => (
+                        <RowBatch key={i} rows={batch} />
                     ))}
                     </tbody>
                 </table>
@@ -82,6 +101,47 @@ export default function UploadAndTable() {
     );
 }
 
+// Memoized so that a new batch leaves the rows of earlier batches untouched
+const RowBatch = memo(function RowBatch({ rows }: { rows: EmployeePairResult[] }) {
+    return (
+        <>
+            {rows.map((row, i) => (
+                <tr key={i}>
+                    <td style={td}>{row.empId1}</td>
+                    <td style={td}>{row.empId2}</td>
+                    <td style={td}>{row.daysWorked}</td>
+                </tr>
+            ))}
+        </>
+    );
+});
+
+/**
+ * Parses an NDJSON body chunk by chunk and hands over the complete lines of each chunk as one batch.
+ * Only the incomplete last line is carried over to the next chunk.
+ */
+async function readNdjson(body: ReadableStream<Uint8Array>, onBatch: (batch: EmployeePairResult[]) => void) {
+    const reader = body.getReader();
+    const decoder = new TextDecoder();
+    let pending = "";
+
+    for (;;) {
+        const { done, value } = await reader.read();
+        pending += decoder.decode(value, { stream: !done });
+
+        const lines = pending.split("\n");
+        // The last element is an incomplete line, or empty when the chunk ended on a newline
+        pending = done ? "" : lines.pop() ?? "";
+        const batch = lines.filter((line) => line.trim() !== "").map((line) => JSON.parse(line) as EmployeePairResult);
+        if (batch.length > 0) {
+            onBatch(batch);
+        }
+        if (done) {
+            return;
+        }
+    }
+}
+
 const th: React.CSSProperties = {
     border: "1px solid #ccc",
     padding: "0.5rem",